@@ -0,0 +1,16 @@
+package org.openjfx;
+
+/**
+ * Visitor for distances computed by a DistanceKernel batch scan
+ */
+@FunctionalInterface
+public interface BatchDistanceVisitor {
+    /**
+     * Called for each word within the bound last returned for a query
+     * @param query Index of the word being scanned for
+     * @param id Id of word in store
+     * @param distance Edit distance from the word being scanned for
+     * @return Largest distance still of interest to this query, words further away are skipped without being reported
+     */
+    int visit(int query, int id, int distance);
+}
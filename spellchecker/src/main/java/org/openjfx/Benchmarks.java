@@ -0,0 +1,300 @@
+package org.openjfx;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Benchmarks of the suggestion search, run against the dictionaries of Config.
+ * Usage: Benchmarks signatures|trigrams|kernel|profiles|segmenter [arguments of that benchmark]
+ */
+public final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Benchmarks signatures|trigrams|kernel|profiles|segmenter [arguments]");
+            return;
+        }
+        Config config = new Config();
+        Dictionary dictionary = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH, config.UNIGRAM_PATH);
+        String[] rest = Arrays.copyOfRange(args, 1, args.length);
+        try {
+            switch (args[0]) {
+                case "signatures":
+                    signatures(dictionary, rest);
+                    break;
+                case "trigrams":
+                    trigrams(dictionary, rest);
+                    break;
+                case "kernel":
+                    kernel(dictionary, rest);
+                    break;
+                case "profiles":
+                    profiles(dictionary, rest);
+                    break;
+                case "segmenter":
+                    segmenter(dictionary, rest);
+                    break;
+                default:
+                    System.out.println("Unknown benchmark " + args[0]);
+            }
+        } finally {
+            dictionary.handleBwClose();
+        }
+    }
+
+    /**
+     * Reports how many words the signatures reject on random misspellings of dictionary words, for the full scan and
+     * the trigram-filtered scan, and how long the bulk pass takes.
+     * Usage: Benchmarks signatures [samples]
+     */
+    private static void signatures(Dictionary dictionary, String[] args) {
+        SpellChecker checker = new SpellChecker(dictionary);
+        checker.bitParallel = false; // the kernel scan doesn't use signatures
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        Random random = new Random(7);
+        String[] words = dictionary.getAllWords();
+        long fullPruned = 0;
+        long filteredPruned = 0;
+        long filteredCandidates = 0;
+        long boundsNanos = 0;
+        long fullNanos = 0;
+        for (int i = 0; i < samples; i++) {
+            char[] chars = words[random.nextInt(words.length)].toCharArray();
+            chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+            String misspelled = new String(chars);
+
+            long start = System.nanoTime();
+            dictionary.distanceLowerBounds(misspelled);
+            boundsNanos += System.nanoTime() - start;
+
+            checker.prefilter = false;
+            start = System.nanoTime();
+            checker.getSuggestions(misspelled);
+            fullNanos += System.nanoTime() - start;
+            fullPruned += checker.lastPruned;
+
+            checker.prefilter = true;
+            checker.getSuggestions(misspelled);
+            filteredPruned += checker.lastPruned;
+            filteredCandidates += checker.lastCandidates;
+        }
+        System.out.printf("full scan: %.1f%% of %d words rejected by signature, %.2f ms per lookup%n",
+                100.0 * fullPruned / samples / words.length, words.length, fullNanos / 1e6 / samples);
+        System.out.printf("trigram candidates: %.1f%% rejected by signature%n", 100.0 * filteredPruned / filteredCandidates);
+        System.out.printf("bulk bounds pass: %.3f ms%n", boundsNanos / 1e6 / samples);
+    }
+
+    /**
+     * Compares trigram-filtered suggestions with a full scan on random one and two edit misspellings of
+     * dictionary words, reporting candidates scored, recall@10 and time per lookup.
+     * Usage: Benchmarks trigrams [samples]
+     */
+    private static void trigrams(Dictionary dictionary, String[] args) {
+        SpellChecker checker = new SpellChecker(dictionary);
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        long startTime = System.nanoTime();
+        TrigramIndex index = new TrigramIndex(new WordStore(dictionary.trie));
+        System.out.println("built " + index.size() + " words in " + (System.nanoTime() - startTime) / 1000000 + " ms");
+
+        Random random = new Random(42);
+        String[] words = dictionary.getAllWords();
+        long candidates = 0;
+        long found = 0;
+        long expected = 0;
+        long filteredNanos = 0;
+        long fullNanos = 0;
+        for (int i = 0; i < samples; i++) {
+            char[] chars = words[random.nextInt(words.length)].toCharArray();
+            for (int e = 0; e <= i % 2; e++) {
+                chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+            }
+            String misspelled = new String(chars);
+
+            checker.prefilter = true;
+            long start = System.nanoTime();
+            List<String> filtered = Arrays.asList(checker.getSuggestions(misspelled));
+            filteredNanos += System.nanoTime() - start;
+            candidates += checker.lastCandidates;
+
+            checker.prefilter = false;
+            start = System.nanoTime();
+            String[] full = checker.getSuggestions(misspelled);
+            fullNanos += System.nanoTime() - start;
+
+            for (String word : full) {
+                if (word != null) {
+                    expected++;
+                    found += filtered.contains(word) ? 1 : 0;
+                }
+            }
+        }
+        System.out.printf("%d lookups, %.0f candidates scored of %d words, recall@10 %.3f, %.2f ms filtered vs %.2f ms full%n",
+                samples, (double) candidates / samples, words.length, (double) found / expected,
+                filteredNanos / 1e6 / samples, fullNanos / 1e6 / samples);
+    }
+
+    /**
+     * Times suggestion lookups on random misspellings of dictionary words with the bit-parallel kernel and with the
+     * scalar one, checking both give the same suggestions, then the same misspellings in one batch against one
+     * getSuggestions call each.
+     * Usage: Benchmarks kernel [samples]
+     */
+    private static void kernel(Dictionary dictionary, String[] args) {
+        SpellChecker checker = new SpellChecker(dictionary);
+        checker.prefilter = false;
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        Random random = new Random(11);
+        String[] words = dictionary.getAllWords();
+        String[] inputs = new String[samples];
+        String[][] expected = new String[samples][];
+        long kernelNanos = 0;
+        long scalarNanos = 0;
+        int mismatches = 0;
+        for (int i = 0; i < samples; i++) {
+            char[] chars = words[random.nextInt(words.length)].toCharArray();
+            for (int e = 0; e <= i % 2; e++) {
+                chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+            }
+            String misspelled = new String(chars);
+            inputs[i] = misspelled;
+
+            checker.bitParallel = true;
+            long start = System.nanoTime();
+            String[] fast = checker.getSuggestions(misspelled);
+            kernelNanos += System.nanoTime() - start;
+
+            checker.bitParallel = false;
+            start = System.nanoTime();
+            String[] scalar = checker.getSuggestions(misspelled);
+            scalarNanos += System.nanoTime() - start;
+            mismatches += Arrays.equals(fast, scalar) ? 0 : 1;
+            expected[i] = fast;
+        }
+        System.out.printf("%d full scans of %d words, %.2f ms bit-parallel vs %.2f ms scalar, %d differed%n",
+                samples, words.length, kernelNanos / 1e6 / samples, scalarNanos / 1e6 / samples, mismatches);
+
+        checker.bitParallel = true;
+        checker.prefilter = true;
+        long start = System.nanoTime();
+        for (String misspelled : inputs) {
+            checker.getSuggestions(misspelled);
+        }
+        long singleNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        Map<String, String[]> batch = checker.getSuggestionsBatch(Arrays.asList(inputs));
+        long batchNanos = System.nanoTime() - start;
+        mismatches = 0;
+        for (int i = 0; i < samples; i++) {
+            mismatches += Arrays.equals(expected[i], batch.get(inputs[i])) ? 0 : 1;
+        }
+        System.out.printf("batch of %d: %.0f words/s vs %.0f words/s one at a time, %d differed from a full scan%n",
+                samples, samples / (batchNanos / 1e9), samples / (singleNanos / 1e9), mismatches);
+    }
+
+    /**
+     * Reports latency, how often the search finished, and how often the top suggestion matched getSuggestions, for
+     * each profile with a deadline, on ordinary misspellings and on long strings of random letters.
+     * Usage: Benchmarks profiles [deadline ms] [samples]
+     */
+    private static void profiles(Dictionary dictionary, String[] args) {
+        SpellChecker checker = new SpellChecker(dictionary);
+        long budget = (long) ((args.length > 0 ? Double.parseDouble(args[0]) : 16) * 1e6);
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        Random random = new Random(3);
+        String[] words = dictionary.getAllWords();
+        String[][] inputs = new String[2][samples];
+        for (int i = 0; i < samples; i++) {
+            char[] chars = words[random.nextInt(words.length)].toCharArray();
+            chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+            inputs[0][i] = new String(chars);
+            chars = new char[20 + random.nextInt(40)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(26));
+            }
+            inputs[1][i] = new String(chars);
+        }
+        for (boolean bitParallel : new boolean[] { true, false }) {
+            checker.bitParallel = bitParallel;
+            for (int set = 0; set < inputs.length; set++) {
+                String[] expected = new String[samples];
+                for (int i = 0; i < samples; i++) {
+                    expected[i] = checker.getSuggestions(inputs[set][i])[0];
+                }
+                for (SpellChecker.Profile profile : SpellChecker.Profile.values()) {
+                    checker.profile = profile;
+                    long worst = 0;
+                    long total = 0;
+                    int complete = 0;
+                    int same = 0;
+                    for (int i = 0; i < samples; i++) {
+                        long start = System.nanoTime();
+                        SuggestionResult result = checker.getSuggestions(inputs[set][i], start + budget);
+                        long elapsed = System.nanoTime() - start;
+                        worst = Math.max(worst, elapsed);
+                        total += elapsed;
+                        complete += result.isComplete() ? 1 : 0;
+                        same += Objects.equals(expected[i], result.getSuggestions()[0]) ? 1 : 0;
+                    }
+                    System.out.printf("%s %-10s %-10s mean %5.2f ms, worst %5.2f ms, %3d%% complete, %3d%% same top%n",
+                            bitParallel ? "kernel" : "scalar", set == 0 ? "misspelled" : "random", profile,
+                            total / 1e6 / samples, worst / 1e6, 100 * complete / samples, 100 * same / samples);
+                }
+            }
+        }
+    }
+
+    /**
+     * Times splitting random dictionary words run together, up to 100 letters long, and reports how often the split
+     * found is the one they were made from.
+     * Usage: Benchmarks segmenter [samples]
+     */
+    private static void segmenter(Dictionary dictionary, String[] args) {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        Random random = new Random(5);
+        String[] words = dictionary.getAllWords();
+        String[] texts = new String[samples];
+        String[] joined = new String[samples];
+        for (int i = 0; i < samples; i++) {
+            StringBuilder text = new StringBuilder();
+            StringBuilder spaced = new StringBuilder();
+            while (true) {
+                String word = words[random.nextInt(words.length)];
+                if (text.length() + word.length() > 100) {
+                    break;
+                }
+                text.append(word);
+                spaced.append(spaced.length() > 0 ? " " : "").append(word);
+            }
+            texts[i] = text.toString();
+            joined[i] = spaced.toString();
+        }
+        for (int i = 0; i < samples; i++) {
+            WordSegmenter.segment(dictionary.trie, texts[i]); // warm up
+        }
+
+        long[] elapsed = new long[samples];
+        long total = 0;
+        int same = 0;
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            String[] split = WordSegmenter.segment(dictionary.trie, texts[i]);
+            elapsed[i] = System.nanoTime() - start;
+            total += elapsed[i];
+            same += split != null && String.join(" ", split).equals(joined[i]) ? 1 : 0;
+        }
+        Arrays.sort(elapsed);
+        System.out.printf("%d texts up to 100 letters: mean %.3f ms, p99 %.3f ms, worst %.3f ms, %d%% split as made%n",
+                samples, total / 1e6 / samples, elapsed[samples * 99 / 100] / 1e6, elapsed[samples - 1] / 1e6,
+                100 * same / samples);
+    }
+}
@@ -0,0 +1,349 @@
+package org.openjfx;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Word pair probabilities used to rerank suggestions by the words around an error.
+ * Built offline from a plain-text corpus by main into a hashed table that is memory-mapped when loaded. Each slot
+ * is a long holding a fingerprint of the pair in its upper 56 bits and the quantized cost -log2 P(right | left) in
+ * its lower 8, so a lookup is a hash and a probe or two with no allocation.
+ */
+public class BigramModel {
+    /**
+     * Marks a bigram table file
+     */
+    private static final int MAGIC = 0x42474d31; // "BGM1"
+
+    /**
+     * Bytes before the first slot, magic then slot bits
+     */
+    private static final int HEADER = 8;
+
+    /**
+     * Quantized cost units per bit of -log2 probability, and cost of a pair not in table
+     */
+    static final int UNITS_PER_BIT = 12;
+    static final int UNSEEN = 255;
+
+    /**
+     * Cost of moving a suggestion down one place, so context has to be fairly sure to overturn distance
+     */
+    static final int POSITION_COST = 2 * UNITS_PER_BIT;
+
+    /**
+     * Model used when no table is available, rerank leaves suggestions as they are
+     */
+    public static final BigramModel EMPTY = new BigramModel(null, 0);
+
+    /**
+     * Mapped table and mask of slot index
+     */
+    private final ByteBuffer table;
+    private final long mask;
+
+    private BigramModel(ByteBuffer table, long mask) {
+        this.table = table;
+        this.mask = mask;
+    }
+
+    /**
+     * Maps table file
+     * @param path Path of table file
+     * @return Loaded model, or EMPTY if file is missing or not a bigram table
+     */
+    public static BigramModel open(String path) {
+        File file = new File(path);
+        if (!file.isFile()) {
+            return EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (table.getInt(0) != MAGIC) {
+                return EMPTY;
+            }
+            int bits = table.getInt(4);
+            if (channel.size() != HEADER + (8L << bits)) {
+                return EMPTY;
+            }
+            return new BigramModel(table, (1L << bits) - 1);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return EMPTY;
+        }
+    }
+
+    /**
+     * @return True if a table is loaded
+     */
+    public boolean isLoaded() {
+        return table != null;
+    }
+
+    /**
+     * Gets cost of right following left, both lowercase
+     * @param left First word
+     * @param right Word after it
+     * @return Quantized -log2 P(right | left), UNSEEN if pair is not in table
+     */
+    public int cost(String left, String right) {
+        if (table == null || left == null || right == null) {
+            return UNSEEN;
+        }
+        long hash = hash(left, right);
+        long fingerprint = fingerprint(hash);
+        for (long slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long entry = table.getLong(HEADER + (int) (slot << 3));
+            if (entry == 0) {
+                return UNSEEN;
+            }
+            if ((entry >>> 8) == fingerprint) {
+                return (int) (entry & 0xff);
+            }
+        }
+    }
+
+    /**
+     * Reorders suggestions by how well each fits between the words around the error.
+     * Each keeps a cost for its place in the list, so close words only lose to ones the context clearly prefers
+     * @param suggestions Suggestions best first, null padded, not changed
+     * @param left Word before error, null if none
+     * @param right Word after error, null if none
+     * @return Reordered copy of suggestions, or suggestions itself if there is no context to use
+     */
+    public String[] rerank(String[] suggestions, String left, String right) {
+        if (table == null || suggestions == null || (left == null && right == null)) {
+            return suggestions;
+        }
+        int n = 0;
+        while (n < suggestions.length && suggestions[n] != null) {
+            n++;
+        }
+        // score and index packed into a long so sorting them allocates nothing per candidate
+        long[] scored = new long[n];
+        for (int i = 0; i < n; i++) {
+            String word = suggestions[i];
+            int score = i * POSITION_COST;
+            if (left != null) {
+                score += cost(left, word);
+            }
+            if (right != null) {
+                score += cost(word, right);
+            }
+            scored[i] = ((long) score << 32) | i;
+        }
+        Arrays.sort(scored);
+
+        String[] out = suggestions.clone();
+        for (int i = 0; i < n; i++) {
+            out[i] = suggestions[(int) scored[i]];
+        }
+        return out;
+    }
+
+    /**
+     * Gets context word of a token for reranking, lowercase letters only
+     * @param token Token next to error
+     * @param before True if token comes before the error
+     * @return Word, or null if token is not a word or punctuation separates it from the error
+     */
+    static String contextWord(String token, boolean before) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        char edge = before ? token.charAt(token.length() - 1) : token.charAt(0);
+        if (!Character.isLetter(edge)) {
+            return null; // "end. Next" or "(word" don't run on
+        }
+        StringBuilder word = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (Character.isLetter(c)) {
+                word.append(Character.toLowerCase(c));
+            }
+        }
+        return word.toString();
+    }
+
+    /**
+     * Counts word pairs of a corpus, a pair doesn't span punctuation
+     * @param corpus Plain-text files to count
+     * @param path Path to write table to
+     * @return Number of distinct pairs written
+     */
+    public static int build(String path, File... corpus) throws IOException {
+        HashMap<String, int[]> pairs = new HashMap<>();
+        HashMap<String, int[]> firsts = new HashMap<>();
+        for (File file : corpus) {
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line;
+                String previous = null;
+                while ((line = br.readLine()) != null) {
+                    StringBuilder word = new StringBuilder();
+                    for (int i = 0; i <= line.length(); i++) {
+                        char c = i < line.length() ? line.charAt(i) : ' ';
+                        if (c == '\'') {
+                            continue; // "don't" counts as "dont", same as contextWord
+                        }
+                        if (Character.isLetter(c)) {
+                            word.append(Character.toLowerCase(c));
+                            continue;
+                        }
+                        if (word.length() > 0) {
+                            String current = word.toString();
+                            if (previous != null) {
+                                pairs.computeIfAbsent(previous + ' ' + current, k -> new int[1])[0]++;
+                                firsts.computeIfAbsent(previous, k -> new int[1])[0]++;
+                            }
+                            previous = current;
+                            word.setLength(0);
+                        }
+                        if (!Character.isWhitespace(c)) {
+                            previous = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        // half full at most so probes stay short
+        int bits = 4;
+        while ((1L << bits) < 2L * pairs.size()) {
+            bits++;
+        }
+        long mask = (1L << bits) - 1;
+        long[] slots = new long[1 << bits];
+        for (Map.Entry<String, int[]> pair : pairs.entrySet()) {
+            String key = pair.getKey();
+            int space = key.indexOf(' ');
+            String left = key.substring(0, space);
+            String right = key.substring(space + 1);
+            double surprise = -Math.log((double) pair.getValue()[0] / firsts.get(left)[0]) / Math.log(2);
+            long cost = Math.min(UNSEEN - 1, Math.round(surprise * UNITS_PER_BIT));
+
+            long hash = hash(left, right);
+            long slot = hash & mask;
+            while (slots[(int) slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[(int) slot] = (fingerprint(hash) << 8) | cost;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(bits);
+            for (long slot : slots) {
+                out.writeLong(slot);
+            }
+        }
+        return pairs.size();
+    }
+
+    /**
+     * FNV-1a over both words with a separator, then mixed so low bits can index slots
+     */
+    private static long hash(String left, String right) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < left.length(); i++) {
+            h = (h ^ left.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ ' ') * 0x100000001b3L;
+        for (int i = 0; i < right.length(); i++) {
+            h = (h ^ right.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Upper 56 bits of hash stored in a slot, never 0 so an empty slot can't match
+     */
+    private static long fingerprint(long hash) {
+        long fingerprint = hash >>> 8;
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    /**
+     * Builds table from a corpus, or evaluates it on held-out text.
+     * Usage: BigramModel build corpus.txt [more.txt ...], written to the bigram path of Config
+     *        BigramModel eval heldout.txt [samples], misspells words of held-out text and compares top suggestions
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BigramModel build corpus.txt [more.txt ...] | eval heldout.txt [samples]");
+            return;
+        }
+        Config config = new Config();
+        if (args[0].equals("build")) {
+            File[] corpus = new File[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                corpus[i - 1] = new File(args[i]);
+            }
+            long startTime = System.nanoTime();
+            int count = build(config.BIGRAM_PATH, corpus);
+            System.out.println(count + " pairs written to " + config.BIGRAM_PATH + " in "
+                    + (System.nanoTime() - startTime) / 1000000 + " ms");
+            return;
+        }
+
+        BigramModel model = open(config.BIGRAM_PATH);
+        if (!model.isLoaded()) {
+            System.out.println("No bigram table at " + config.BIGRAM_PATH);
+            return;
+        }
+        Dictionary dictionary = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH, config.UNIGRAM_PATH);
+        SpellChecker checker = new SpellChecker(dictionary);
+        int samples = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        // words of held-out text with their neighbours, misspelled by one random edit
+        List<String[]> cases = new ArrayList<>();
+        Random random = new Random(42);
+        String text = new String(Files.readAllBytes(Path.of(args[1]))).toLowerCase();
+        String[] words = text.split("[^a-z]+");
+        for (int i = 1; i + 1 < words.length && cases.size() < samples; i++) {
+            String word = words[i];
+            if (word.length() < 4 || !dictionary.searchWord(word) || random.nextInt(4) != 0) {
+                continue;
+            }
+            char[] chars = word.toCharArray();
+            chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+            String misspelled = new String(chars);
+            if (!dictionary.searchWord(misspelled)) {
+                cases.add(new String[] { misspelled, word, words[i - 1], words[i + 1] });
+            }
+        }
+
+        int plain = 0;
+        int reranked = 0;
+        long rerankNanos = 0;
+        for (String[] c : cases) {
+            String[] suggestions = checker.getSuggestions(c[0]);
+            long start = System.nanoTime();
+            String[] better = model.rerank(suggestions, c[2], c[3]);
+            rerankNanos += System.nanoTime() - start;
+            plain += c[1].equals(suggestions[0]) ? 1 : 0;
+            reranked += c[1].equals(better[0]) ? 1 : 0;
+        }
+        dictionary.handleBwClose();
+        System.out.println(cases.size() + " misspellings, top-1 without context " + plain + ", with context "
+                + reranked + ", rerank " + (cases.isEmpty() ? 0 : rerankNanos / cases.size() / 1000.0) + " us each");
+    }
+}
@@ -0,0 +1,16 @@
+package org.openjfx;
+
+/**
+ * Visitor for streaming words out of a WordStore along with their ids
+ */
+@FunctionalInterface
+public interface CandidateVisitor {
+    /**
+     * Called for each word in alphabetical order
+     * @param id Id of word in store
+     * @param word Buffer holding the word, reused between calls so copy it to keep it
+     * @param length Number of letters of word in buffer
+     * @return True to continue, false to stop enumerating
+     */
+    boolean visit(int id, char[] word, int length);
+}
@@ -11,6 +11,8 @@ public class Config {
     public String STD_DICTIONARY_PATH;
     public String USER_DICTIONARY_PATH;
     public String TEMP_OUTPUT_PATH;
+    public String UNIGRAM_PATH;
+    public String BIGRAM_PATH;
     public String TEST_STD_DICTIONARY_PATH;
     public String TEST_USER_DICTIONARY_PATH;
 
@@ -20,6 +22,8 @@ public class Config {
         STD_DICTIONARY_PATH = path + "words_alpha.txt";
         USER_DICTIONARY_PATH = path + "user_dictionary.txt";
         TEMP_OUTPUT_PATH = path + "temp_output.txt";
+        UNIGRAM_PATH = path + "unigrams.bin";
+        BIGRAM_PATH = path + "bigrams.bin";
 
         TEST_STD_DICTIONARY_PATH = path + "test_dictionary.txt";
         TEST_USER_DICTIONARY_PATH = path + "test_user_dictionary.txt";
@@ -1,20 +1,42 @@
 package org.openjfx;
 import java.io.*;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class Dictionary {
     public Trie trie;
+    // the trie isn't safe to read while a word is added, lookups from the error index and suggestion threads share
+    // the read lock and addWord takes the write lock
+    private final ReentrantReadWriteLock trieLock = new ReentrantReadWriteLock();
+    private WordStore store;
+    private PhoneticIndex phonetic;
+    private TrigramIndex trigrams;
+    private int[] signatures;
+    private DistanceKernel kernel;
+    private UnigramModel unigrams = UnigramModel.EMPTY;
+    private String unigramPath;
     private BufferedWriter bw;
-    private String[] allWordsCache;
 
     /**
-     * Creates a new Dictionary object.
+     * Creates a new Dictionary object without word frequencies.
      * @param dictPath the path to the dictionary file
      * @param userDictPath the path to the user dictionary file
      */
     public Dictionary(String dictPath, String userDictPath) {
+        this(dictPath, userDictPath, null);
+    }
+
+    /**
+     * Creates a new Dictionary object.
+     * @param dictPath the path to the dictionary file
+     * @param userDictPath the path to the user dictionary file
+     * @param unigramPath the path to the unigram table built by UnigramModel, null for none
+     */
+    public Dictionary(String dictPath, String userDictPath, String unigramPath) {
         //this creates a new Trie named trie
         this.trie = new Trie();
+        this.unigramPath = unigramPath;
 
         buildTree(new File(dictPath), new File(userDictPath));
 
@@ -39,52 +61,281 @@ public class Dictionary {
             return false;
         }
 
-        if(trie.search(Word)){
-            return false;
+        trieLock.writeLock().lock();
+        try {
+            if(trie.search(Word)){
+                return false;
+            }
+            //adds the word into the trie, and the word store so it can be suggested without rebuilding
+            trie.add(Word);
+            int id = store.add(Word);
+            phonetic.add(id, Word);
+            trigrams.add(id, Word);
+            addSignature(id, Word);
+            kernel.add(id, Word);
+            //saves the word into the users dictionary 
+            saveToUserDictionary(Word);
+            return true;
+        } finally {
+            trieLock.writeLock().unlock();
         }
-        //adds the word into the trie
-        trie.add(Word);
-        //saves the word into the users dictionary 
-        saveToUserDictionary(Word);
-        allWordsCache = null;
-        return true;
     }
     /**
      * @param Word 
      * returns the searched word by using the search method in trie 
      */
     public boolean searchWord(String Word) {
-        return trie.search(Word);
+        trieLock.readLock().lock();
+        try {
+            return trie.search(Word);
+        } finally {
+            trieLock.readLock().unlock();
+        }
     }
 
+    /**
+     * @param text
+     * @param from start of word in text
+     * @param to end of word in text
+     * returns whether the word in text from from to to is in the dictionary, any case, without copying it out
+     */
+    public boolean searchWord(CharSequence text, int from, int to) {
+        trieLock.readLock().lock();
+        try {
+            return trie.search(text, from, to);
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param prefix start of word, any case
+     * @param k number of completions wanted
+     * returns up to k best completions of prefix, using the complete method in trie
+     */
+    public List<String> complete(String prefix, int k) {
+        trieLock.readLock().lock();
+        try {
+            return trie.complete(prefix.toLowerCase(), k);
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns all words in alphabetical order, built on each call so prefer forEachCandidate to scan the dictionary
+     */
     public String[] getAllWords() {
-        if (allWordsCache == null) {
-            allWordsCache = trie.getAllWords().toArray(new String[0]);
+        String[] out = new String[store.size()];
+        int[] n = { 0 };
+        store.forEach(0, Integer.MAX_VALUE, (word, length) -> {
+            out[n[0]++] = new String(word, 0, length);
+            return true;
+        });
+        return out;
+    }
+
+    /**
+     * @param minLength shortest word to visit
+     * @param maxLength longest word to visit
+     * @param visitor called with each word and its id, return false to stop
+     * streams every word to visitor in alphabetical order from the flat word store, faster than walking the trie
+     */
+    public void forEachCandidate(int minLength, int maxLength, CandidateVisitor visitor) {
+        store.forEachCandidate(minLength, maxLength, visitor);
+    }
+
+    /**
+     * @param Word
+     * @param maxEdits most edits to make
+     * @param visitor called with each word reached and the edits made, a word can come more than once
+     * streams words within maxEdits edits of Word to visitor, using the forEachEdit method in trie
+     */
+    public void forEachEdit(String Word, int maxEdits, EditVisitor visitor) {
+        trieLock.readLock().lock();
+        try {
+            trie.forEachEdit(Word, maxEdits, visitor);
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param Word
+     * returns the words of the best split of Word into two or more dictionary words, null if there is none,
+     * using the WordSegmenter on the trie
+     */
+    public String[] segment(String Word) {
+        trieLock.readLock().lock();
+        try {
+            return WordSegmenter.segment(trie, Word);
+        } finally {
+            trieLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param Word
+     * returns the id forEachCandidate gives Word, -1 if it isn't in the dictionary
+     */
+    public int idOf(String Word) {
+        return store.id(Word);
+    }
+
+    /**
+     * @param Word
+     * returns ids of words that sound like Word however many edits away they are, using the phonetic index
+     */
+    public int[] soundsLike(String Word) {
+        return phonetic.lookup(Word);
+    }
+
+    /**
+     * returns number of words in the dictionary
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * @param id
+     * returns the word with id, as given to forEachCandidate and soundsLike
+     */
+    public String wordAt(int id) {
+        return store.word(id);
+    }
+
+    /**
+     * @param Word
+     * returns a lower bound on the edit distance from Word to each word, indexed by the ids given to
+     * forEachCandidate, computed in one pass over the letter signatures
+     */
+    public synchronized byte[] distanceLowerBounds(String Word) {
+        byte[] bounds = new byte[store.size()];
+        LetterSignature.lowerBounds(LetterSignature.of(Word), signatures, Math.min(bounds.length, signatures.length), bounds);
+        return bounds;
+    }
+
+    /**
+     * returns trigram index over the ids given to forEachCandidate, to find words close to a misspelling
+     */
+    public TrigramIndex getTrigrams() {
+        return trigrams;
+    }
+
+    /**
+     * returns the dictionary packed for the bit-parallel distance kernel, ids as given to forEachCandidate
+     */
+    public DistanceKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * returns word frequencies indexed by the ids given to forEachCandidate, empty if no table was loaded
+     */
+    public UnigramModel getUnigrams() {
+        return unigrams;
+    }
+
+    /**
+     * @param prefix start of words to visit, lowercase
+     * @param minLength shortest word to visit
+     * @param maxLength longest word to visit
+     * @param visitor called with each word, return false to stop
+     * streams words to visitor in alphabetical order without building a list, using the forEachWord method in trie
+     */
+    public void forEachWord(String prefix, int minLength, int maxLength, WordVisitor visitor) {
+        trieLock.readLock().lock();
+        try {
+            trie.forEachWord(prefix, minLength, maxLength, visitor);
+        } finally {
+            trieLock.readLock().unlock();
         }
-        return allWordsCache;
     }
     /**
      * @param stockDictionary
      * @param userDictionary
-     * this method uses the private method loadWords to read the files and add them to the trie
+     * this method uses the private method loadWords to read the files and add them to the trie.
+     * stock words are flattened into the word store first so their ids only depend on the stock dictionary,
+     * which is what the unigram table is built against, user words are appended after them
      */
     public void buildTree(File stockDictionary, File userDictionary){
         // just loads it
-        loadWords(stockDictionary);
-        loadWords(userDictionary);
+        loadWords(stockDictionary, trie, null);
+        store = new WordStore(trie);
+        if (unigramPath != null) {
+            unigrams = UnigramModel.load(unigramPath, store);
+            seedScores();
+        }
+        loadWords(userDictionary, trie, store);
+        store.compact();
+        phonetic = new PhoneticIndex(store);
+        trigrams = new TrigramIndex(store);
+        kernel = new DistanceKernel(store);
+        int[] built = new int[store.size()];
+        store.forEachCandidate(0, Integer.MAX_VALUE, (id, word, length) -> {
+            built[id] = LetterSignature.of(word, length);
+            return true;
+        });
+        signatures = built;
+    }
+
+    /**
+     * scores each stock word in the trie with its quantized frequency, so complete() returns common words first,
+     * words never seen in the corpus keep score 0
+     */
+    private void seedScores() {
+        store.forEachCandidate(0, Integer.MAX_VALUE, (id, word, length) -> {
+            int score = unigrams.quantized(id);
+            if (score > 0) {
+                trie.add(new String(word, 0, length), score);
+            }
+            return true;
+        });
     }
+
+    /**
+     * @param id
+     * @param Word
+     * stores the letter signature of an added word, growing the array when full
+     */
+    private synchronized void addSignature(int id, String Word) {
+        if (id >= signatures.length) {
+            signatures = Arrays.copyOf(signatures, Math.max(id + 1, signatures.length * 2));
+        }
+        signatures[id] = LetterSignature.of(Word);
+    }
+
+    /**
+     * @param stockDictionary
+     * returns a trie of the stock dictionary alone, a WordStore of it has the same ids as a Dictionary's
+     */
+    static Trie loadStock(File stockDictionary) {
+        Trie stock = new Trie();
+        loadWords(stockDictionary, stock, null);
+        return stock;
+    }
+
     /**
      * @param file
-     * reads the file that is given and then adds it to the trie
+     * @param trie
+     * @param store
+     * reads the file that is given and then adds it to the trie, and new words to store if there is one
      */
-    private void loadWords(File file) {
+    private static void loadWords(File file, Trie trie, WordStore store) {
         // a try statement that uses BufferedReader to read the file 
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             // makeing a string named line to used it in the while loop 
             String line;
             // while loop which uses line to read the file line by line and adding it to the trie
             while ((line = br.readLine()) != null) {
-                trie.add(line.trim());
+                String word = line.trim();
+                if (store == null) {
+                    trie.add(word);
+                } else if (!trie.search(word)) {
+                    trie.add(word);
+                    store.add(word);
+                }
             }
         } catch (IOException e) {
             e.printStackTrace();
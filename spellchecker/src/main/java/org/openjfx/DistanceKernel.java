@@ -0,0 +1,377 @@
+package org.openjfx;
+
+import java.util.Arrays;
+
+/**
+ * Bit-parallel edit distance over the dictionary packed into one byte[] per word length.
+ * Each bit of a long holds one row of the distance table, so a whole column is computed with a dozen word operations
+ * per letter of the candidate (Myers' algorithm, with Hyyro's extension for transpositions), and the result is the
+ * same restricted Damerau distance as SpellChecker.levenshteinEditDistance. Words of one length sit back to back in a
+ * single array, so a scan runs through memory in order and can skip whole lengths too far from the word.
+ * Words too long for a long, or with characters that don't fit a byte, are reported for scoring some other way.
+ */
+public class DistanceKernel {
+    /**
+     * Longest word packed, one bit per letter of the word being scanned for as well
+     */
+    static final int MAX_LENGTH = 64;
+
+    /**
+     * Number of words scored between looks at the deadline
+     */
+    private static final int CHUNK = 2048;
+
+    /**
+     * Letters of every packed word of each length, and their ids in the same order
+     */
+    private final byte[][] letters = new byte[MAX_LENGTH + 1][];
+    private final int[][] ids = new int[MAX_LENGTH + 1][];
+    private final int[] counts = new int[MAX_LENGTH + 1];
+
+    /**
+     * Number of words of each length packed in alphabetical order, words added later follow them
+     */
+    private final int[] sorted = new int[MAX_LENGTH + 1];
+
+    /**
+     * Ids of words that couldn't be packed
+     */
+    private int[] unpacked = new int[16];
+    private int unpackedCount;
+
+    /**
+     * Constructor, packs every word of a store
+     * @param store Store to pack
+     */
+    public DistanceKernel(WordStore store) {
+        store.forEachCandidate(0, Integer.MAX_VALUE, (id, word, length) -> {
+            add(id, word, length);
+            return true;
+        });
+        System.arraycopy(counts, 0, sorted, 0, counts.length);
+    }
+
+    /**
+     * Packs a word added after building
+     * @param id Id of word in store
+     * @param word Word to pack
+     */
+    public synchronized void add(int id, String word) {
+        add(id, word.toCharArray(), word.length());
+    }
+
+    private void add(int id, char[] word, int length) {
+        boolean packable = length <= MAX_LENGTH;
+        for (int i = 0; i < length && packable; i++) {
+            packable = word[i] > 0 && word[i] < 256;
+        }
+        if (!packable) {
+            if (unpackedCount == unpacked.length) {
+                unpacked = Arrays.copyOf(unpacked, unpackedCount * 2);
+            }
+            unpacked[unpackedCount++] = id;
+            return;
+        }
+        int n = counts[length];
+        if (ids[length] == null) {
+            ids[length] = new int[16];
+            letters[length] = new byte[16 * length];
+        } else if (n == ids[length].length) {
+            ids[length] = Arrays.copyOf(ids[length], n * 2);
+            letters[length] = Arrays.copyOf(letters[length], n * 2 * length);
+        }
+        ids[length][n] = id;
+        for (int i = 0; i < length; i++) {
+            letters[length][n * length + i] = (byte) word[i];
+        }
+        counts[length] = n + 1;
+    }
+
+    /**
+     * Checks a word can be scanned for, it needs one bit per letter
+     * @param word Word to scan for
+     * @return True if scan accepts word
+     */
+    public static boolean fits(String word) {
+        return word.length() <= MAX_LENGTH;
+    }
+
+    /**
+     * Computes the distance of word to every packed word, lengths closest to its own first so the bound visitor
+     * returns tightens early and far lengths are skipped altogether
+     * @param word Word to scan for, no longer than MAX_LENGTH
+     * @param bound Largest distance of interest to begin with
+     * @param visitor Receives each word within the bound, and returns the new bound
+     * @return Ids of words that weren't packed, still to be scored
+     */
+    public int[] scan(String word, int bound, DistanceVisitor visitor) {
+        return scan(word, false, bound, Long.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Same as scan, optionally counting a neighbouring key as a match. Every edit but a slip onto a neighbouring key
+     * costs KeyboardDistance.EDIT_COST, so the distance reported is then at most the keyboard distance over EDIT_COST
+     * @param word Word to scan for, no longer than MAX_LENGTH
+     * @param nearKeys True to count neighbouring keys as matching
+     * @param bound Largest distance of interest to begin with
+     * @param deadline System.nanoTime() to give up at, Long.MAX_VALUE for none. Within each length words sharing
+     * the first two letters of word are scored first, then those sharing the first, so the closest words tend to be
+     * found before time runs out
+     * @param visitor Receives each word within the bound, and returns the new bound
+     * @return Ids of words that weren't packed, still to be scored, or null if the deadline passed first
+     */
+    public synchronized int[] scan(String word, boolean nearKeys, int bound, long deadline, DistanceVisitor visitor) {
+        int m = word.length();
+        long[] masks = nearKeys ? nearMasks(word) : masks(word);
+        byte[] distances = new byte[CHUNK];
+        for (int step = 0; step <= 2 * MAX_LENGTH; step++) {
+            // m, m + 1, m - 1, m + 2, m - 2, ...
+            int length = (step & 1) == 0 ? m - step / 2 : m + (step + 1) / 2;
+            if (Math.abs(length - m) > bound) {
+                break;
+            }
+            if (length < 0 || length > MAX_LENGTH || counts[length] == 0) {
+                continue;
+            }
+            int[] pieces = promiseOrder(word, length);
+            for (int p = 0; p < pieces.length; p += 2) {
+                for (int from = pieces[p]; from < pieces[p + 1]; from += CHUNK) {
+                    if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+                        return null;
+                    }
+                    int to = Math.min(pieces[p + 1], from + CHUNK);
+                    distances(masks, m, letters[length], length, from, to, bound, distances);
+                    for (int i = from; i < to; i++) {
+                        if (distances[i - from] <= bound) {
+                            bound = visitor.visit(ids[length][i], distances[i - from]);
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(unpacked, unpackedCount);
+    }
+
+    /**
+     * Checks a word can be scanned for in a batch, it needs one bit per letter and a guard bit
+     * @param word Word to scan for
+     * @return True if scanBatch accepts word
+     */
+    public static boolean fitsBatch(String word) {
+        return !word.isEmpty() && word.length() < MAX_LENGTH;
+    }
+
+    /**
+     * Computes the distance of many words to every packed word. Words of the same length share a long, each in its
+     * own bits with a guard bit above it that stops carries and shifts leaking into the next, so one pass over the
+     * packed words scores up to MAX_LENGTH / (length + 1) of them. Lengths are visited closest first for each long
+     * and skipped once further than the loosest bound of the words in it.
+     * @param words Words to scan for, each accepted by fitsBatch
+     * @param bound Largest distance of interest to each word to begin with
+     * @param visitor Receives each word within the bound of a query, and returns the query's new bound
+     * @return Ids of words that weren't packed, still to be scored
+     */
+    public synchronized int[] scanBatch(String[] words, int bound, BatchDistanceVisitor visitor) {
+        // sort queries by length, each run of one length fills as few longs as it can
+        long[] byLength = new long[words.length];
+        for (int q = 0; q < words.length; q++) {
+            byLength[q] = ((long) words[q].length() << 32) | q;
+        }
+        Arrays.sort(byLength);
+        int[] bounds = new int[words.length];
+        Arrays.fill(bounds, bound);
+
+        int[] group = new int[MAX_LENGTH];
+        long[] segments = new long[MAX_LENGTH];
+        for (int start = 0; start < byLength.length; ) {
+            int m = (int) (byLength[start] >>> 32);
+            int size = 0;
+            while (start < byLength.length && size < MAX_LENGTH / (m + 1) && byLength[start] >>> 32 == m) {
+                group[size++] = (int) byLength[start++];
+            }
+            long[] masks = new long[256];
+            long low = 0;
+            long pattern = 0;
+            for (int k = 0; k < size; k++) {
+                String word = words[group[k]];
+                int offset = k * (m + 1);
+                for (int i = 0; i < m; i++) {
+                    char c = word.charAt(i);
+                    if (c < 256) {
+                        masks[c] |= 1L << (offset + i);
+                    }
+                }
+                low |= 1L << offset;
+                segments[k] = ((1L << m) - 1) << offset;
+                pattern |= segments[k];
+            }
+
+            for (int step = 0; step <= 2 * MAX_LENGTH; step++) {
+                int length = (step & 1) == 0 ? m - step / 2 : m + (step + 1) / 2;
+                int loosest = 0;
+                for (int k = 0; k < size; k++) {
+                    loosest = Math.max(loosest, bounds[group[k]]);
+                }
+                if (Math.abs(length - m) > loosest) {
+                    break;
+                }
+                if (length < 0 || length > MAX_LENGTH || counts[length] == 0) {
+                    continue;
+                }
+                byte[] packed = letters[length];
+                for (int w = 0, offset = 0; w < counts[length]; w++, offset += length) {
+                    long vp = pattern;
+                    long vn = 0;
+                    long d0 = 0;
+                    long previous = 0;
+                    for (int j = 0; j < length; j++) {
+                        long eq = masks[packed[offset + j] & 0xff];
+                        long tr = ((~d0 & eq) << 1) & previous;
+                        // guard bits of vp are clear, so a carry out of one word stops in its guard bit
+                        d0 = ((((eq & vp) + vp) ^ vp) | eq | vn | tr) & pattern;
+                        long hp = (vn | ~(d0 | vp)) & pattern;
+                        long hn = vp & d0;
+                        hp = ((hp << 1) & pattern) | low;
+                        hn = (hn << 1) & pattern;
+                        vp = (hn | ~(d0 | hp)) & pattern;
+                        vn = hp & d0;
+                        previous = eq;
+                    }
+                    // the last row is row 0, length, plus the vertical deltas down the last column
+                    for (int k = 0; k < size; k++) {
+                        int distance = length + Long.bitCount(vp & segments[k]) - Long.bitCount(vn & segments[k]);
+                        if (distance <= bounds[group[k]]) {
+                            bounds[group[k]] = visitor.visit(group[k], ids[length][w], distance);
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(unpacked, unpackedCount);
+    }
+
+    /**
+     * Splits the words of one length into ranges, most promising first: words sharing the first two letters of
+     * word, then the first letter, then the rest, then words added after packing
+     * @return Start and end of each range, in pairs
+     */
+    private int[] promiseOrder(String word, int length) {
+        int n = sorted[length];
+        int lo1 = 0;
+        int hi1 = 0;
+        if (!word.isEmpty() && length >= 1) {
+            lo1 = prefixBound(word, 1, length, 0, n, false);
+            hi1 = prefixBound(word, 1, length, lo1, n, true);
+        }
+        int lo2 = lo1;
+        int hi2 = lo1;
+        if (word.length() >= 2 && length >= 2) {
+            lo2 = prefixBound(word, 2, length, lo1, hi1, false);
+            hi2 = prefixBound(word, 2, length, lo2, hi1, true);
+        }
+        return new int[] { lo2, hi2, lo1, lo2, hi2, hi1, 0, lo1, hi1, n, n, counts[length] };
+    }
+
+    /**
+     * Binary searches the alphabetical words of one length in [lo, hi) for the first whose first p letters are at
+     * least, or with after past, the first p letters of word
+     */
+    private int prefixBound(String word, int p, int length, int lo, int hi, boolean after) {
+        byte[] packed = letters[length];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = 0;
+            for (int i = 0; i < p && c == 0; i++) {
+                c = (packed[mid * length + i] & 0xff) - word.charAt(i);
+            }
+            if (c < 0 || (after && c == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Builds the match mask of each byte value, bit i set where letter i of word is that value
+     * @param word Word being scanned for, characters that don't fit a byte match nothing packed
+     * @return Masks indexed by byte value
+     */
+    static long[] masks(String word) {
+        long[] masks = new long[256];
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 256) {
+                masks[c] |= 1L << i;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Same as masks, also setting bit i for the keys next to letter i
+     */
+    static long[] nearMasks(String word) {
+        long[] masks = masks(word);
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            for (char x = 'a'; x <= 'z'; x++) {
+                if (x != c && KeyboardDistance.substitution(c, x) == KeyboardDistance.NEAR_COST) {
+                    masks[x] |= 1L << i;
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Computes bounded distances of a word to many words of one length packed back to back
+     * @param masks Match masks of the word, from masks
+     * @param m Length of the word, at most MAX_LENGTH
+     * @param packed Packed words
+     * @param length Length of every packed word
+     * @param from Index of first packed word to score
+     * @param to Index after last packed word to score
+     * @param bound Largest distance of interest
+     * @param out Receives distance of each packed word from index 0, bound + 1 for any further away
+     */
+    static void distances(long[] masks, int m, byte[] packed, int length, int from, int to, int bound, byte[] out) {
+        int over = Math.min(bound, 126) + 1;
+        if (m == 0) {
+            Arrays.fill(out, 0, to - from, (byte) Math.min(length, over));
+            return;
+        }
+        long last = 1L << (m - 1);
+        for (int w = from, offset = from * length; w < to; w++, offset += length) {
+            long vp = -1L; // vertical deltas of the column, +1 everywhere in column 0
+            long vn = 0;
+            long d0 = 0;
+            long previous = 0;
+            int score = m;
+            for (int j = 0; j < length; j++) {
+                long eq = masks[packed[offset + j] & 0xff];
+                long tr = ((~d0 & eq) << 1) & previous; // transposition of this letter and the one before
+                d0 = (((eq & vp) + vp) ^ vp) | eq | vn | tr;
+                long hp = vn | ~(d0 | vp);
+                long hn = vp & d0;
+                if ((hp & last) != 0) {
+                    score++;
+                } else if ((hn & last) != 0) {
+                    score--;
+                }
+                hp = (hp << 1) | 1; // row 0 goes up by one every column
+                hn <<= 1;
+                vp = hn | ~(d0 | hp);
+                vn = hp & d0;
+                previous = eq;
+                // each letter left can lower the score by at most one
+                if (score - (length - j - 1) > bound) {
+                    break;
+                }
+            }
+            out[w - from] = (byte) Math.min(score, over);
+        }
+    }
+
+}
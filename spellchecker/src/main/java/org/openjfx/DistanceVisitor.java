@@ -0,0 +1,15 @@
+package org.openjfx;
+
+/**
+ * Visitor for distances computed by a DistanceKernel scan
+ */
+@FunctionalInterface
+public interface DistanceVisitor {
+    /**
+     * Called for each word within the bound last returned
+     * @param id Id of word in store
+     * @param distance Edit distance from the word being scanned for
+     * @return Largest distance still of interest, words further away are skipped without being reported
+     */
+    int visit(int id, int distance);
+}
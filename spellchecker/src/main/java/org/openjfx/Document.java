@@ -1,17 +1,17 @@
 package org.openjfx;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.stage.Modality;
@@ -31,14 +31,30 @@ public class Document {
     File file;
 
     /**
-     * Buffered reader for reading to file
+     * Memory-mapped reader for reading from file
      */
-    BufferedReader br;
+    MappedTextReader reader;
 
     /**
-     * Buffered writer for writing to file
+     * Writer recording edits as patches against the original file
      */
-    BufferedWriter bw;
+    PatchWriter writer;
+
+    /**
+     * Current line as read from file, before any edits
+     */
+    String originalContext;
+
+    /**
+     * Byte offsets of the start and end (excluding line terminator) of current line in file
+     */
+    long contextStart;
+    long contextEnd;
+
+    /**
+     * Number of bytes of file covered by saved lines, output is cut off here on exit
+     */
+    long savedThrough;
 
     /**
      * Word count of document
@@ -50,20 +66,30 @@ public class Document {
      */
     public int lineCount;
 
+    /**
+     * Line number of current context in file, starting at 0
+     */
+    public int lineNumber = -1;
+
+    /**
+     * Index of all errors in file, built in the background
+     */
+    public ErrorIndex errorIndex;
+
     /**
      * Char count of document
      */
     public int charCount;
     
     /**
-     * Total file size of document
+     * Total file size of document in bytes
      */
-    float totalFileSize;
+    long totalFileSize;
 
     /**
-     * Bytes read of document
+     * Bytes of document checked so far
      */
-    public float bytesRead;
+    public long bytesRead;
 
     /**
      * Progress of spell-checking document
@@ -76,9 +102,32 @@ public class Document {
     public String tempOutput;
 
     /**
-     * Map of words to replace with
+     * Replace-all rules, applied to every line as it is read
+     */
+    private final ReplaceAllMatcher replaceAllRules = new ReplaceAllMatcher();
+
+    /**
+     * Rules for checking words of a line, keeps spelling verdicts of tokens seen in document
      */
-    private final HashMap<String, String> replaceAllWords = new HashMap<>();
+    private final LineChecker lineChecker;
+
+    /**
+     * Suggestions for each misspelling, computed once and shared by all its occurrences.
+     * Suggestions for the next errors in the index are computed in the background while the user decides
+     */
+    private final SuggestionScheduler suggestions;
+
+    /**
+     * Word pair model suggestions are reranked with, and words either side of current error
+     */
+    private final BigramModel bigrams;
+    private String contextLeft;
+    private String contextRight;
+
+    /**
+     * Number of times each misspelling has been flagged in document
+     */
+    private final HashMap<String, Integer> occurrenceCounts = new HashMap<>();
 
     /**
      * Flag to skip tags in html or xml
@@ -107,10 +156,6 @@ public class Document {
      */
     public ErrorType currentErrorType;
 
-    /**
-     * Current context of document
-     */
-    public String currentContext;
 
     /**
      * Current suggestions for error
@@ -122,6 +167,21 @@ public class Document {
      */
     public int currWordIndex;
 
+    /**
+     * Tokens of current context, edits are made here instead of re-splitting the line, null if file has no lines
+     */
+    private TokenLine line;
+
+    /**
+     * Flag to leave currentSuggestions null when an error is found, suggestions are then fetched with awaitSuggestions()
+     */
+    public boolean deferSuggestions;
+
+    /**
+     * Flag set once document has been exited or destroyed
+     */
+    private boolean closed;
+
     /**
      * Constructor, initializes document with file and spell checker
      * @param file    File to be spell-checked
@@ -131,21 +191,27 @@ public class Document {
     public Document(File file, SpellChecker checker, Config config) throws IOException {
         this.file = file;
         this.checker = checker;
+        this.lineChecker = new LineChecker(checker);
+        this.suggestions = new SuggestionScheduler(checker);
+        this.bigrams = BigramModel.open(config.BIGRAM_PATH);
         this.tempOutput = config.TEMP_OUTPUT_PATH;
                                                                                                                          // +
-        // Creating a buffered reader here to remember last line read
-        this.br = new BufferedReader(new FileReader(this.file));
-        this.bw = new BufferedWriter(new FileWriter(tempOutput));
+        // Creating a mapped reader here to remember last line read
+        this.reader = new MappedTextReader(this.file.toPath());
+        this.writer = new PatchWriter(this.file.toPath());
+
+        // index whole file in the background so error totals are known up front
+        this.errorIndex = ErrorIndex.start(file, checker);
 
         // stats
-        this.totalFileSize = file.length();
+        this.totalFileSize = reader.size();
         this.bytesRead = 0;
 
         // setup current state
-        this.currentContext = readLine();
+        setContext(readLine());
         this.currWordIndex = 0;
         this.errorCounts = new HashMap<ErrorType, Integer>();
-        this.progress = currentContext == null ? 100 : 0;
+        this.progress = line == null ? 100 : 0;
     }
 
     /**
@@ -153,17 +219,32 @@ public class Document {
      * @return Current error in document
      */
     public Error startSpellCheck() {
-        this.currentError = currentContext == null ? null : spellCheckFile(currentContext, currWordIndex);
+        this.currentError = line == null ? null : spellCheckFile(currWordIndex);
         return this.currentError;
     }
 
     /**
-     * Returns current error in document
-     * @param currentContext Current context of document
-     * @param idx Current word index of error in context
+     * @return Text of current line, rebuilt from its tokens only when asked for after an edit, null if file has no
+     *         lines
+     */
+    public String currentContext() {
+        return line == null ? null : line.text();
+    }
+
+    /**
+     * Replaces current line, the tokens of the new text are checked from then on
+     * @param context Text of line, null if there is none
+     */
+    public void setContext(String context) {
+        this.line = context == null ? null : new TokenLine(context);
+    }
+
+    /**
+     * Returns current error in document, checking the current line from a word on and then the lines after it
+     * @param idx Word index in current line to check from
      * @return Error object of current error
      */
-    public Error spellCheckFile(String currentContext, int idx) {
+    public Error spellCheckFile(int idx) {
         // Iterating through words, ignoring indexes to be ignored, spaces (as they
         // count as a word), double spaces
         // Flagging duplicate words, double spaces b/w words, and single extra spaces at
@@ -171,100 +252,43 @@ public class Document {
 
         this.currentSuggestions = null;
 
-        String[] words = currentContext.split("(?<=\\s)|(?=\\s)");
-
-        for (; idx < words.length; idx++) {
-            this.currWordIndex = idx;
-
-            // skip empty lines and spaces
-            if (words[idx].equals("") || words[idx].equals(" ")) {
-                continue;
-            }
+        while (true) {
+            TokenLine words = line;
 
-            wordCount++;
+            for (; idx < words.size(); idx++) {
+                this.currWordIndex = idx;
 
-            // Checking next words
-            if (idx + 2 < words.length && words[idx].equals(words[idx + 2])) {
-                // double word
-                System.out.println("Double word: " + words[idx]);
-                errorCounts.put(ErrorType.DOUBLE_WORD, errorCounts.getOrDefault(ErrorType.DOUBLE_WORD, 0) + 1);
-                this.currentErrorType = ErrorType.DOUBLE_WORD;
-                this.currentSuggestions = checker.getSuggestions(words[idx]);
-                return new Error(words[idx]);
-            }
-            // Prev words
-            if (idx - 2 >= 0 && words[idx].equals(words[idx - 2])) {
-                // double word
-                System.out.println("Double word: " + words[idx]);
-                errorCounts.put(ErrorType.DOUBLE_WORD, errorCounts.getOrDefault(ErrorType.DOUBLE_WORD, 0) + 1);
-                this.currentErrorType = ErrorType.DOUBLE_WORD;
-                this.currentSuggestions = checker.getSuggestions(words[idx]);
-                return new Error(words[idx]);
-            }
-            // ** Play around with pos?**
-            // ex. .. sentence. secondz ... detects secondz as a cap error forcing user to correct
-            // if they manually correct and fail to capitialize this error triggers again
-            // if they "" and misspell the block below is triggered 
-            if (idx - 2 >= 0 && hasEndPunct(words[idx - 2])) {  // Curr word not capped and prev word has punct
-
-                if (checker.isAcronym(checker.removeTags(words[idx]))) continue;    // if acronym ignore
-
-                if (!checker.checkCapitalization(checker.removeTags(words[idx]))) {
-                    System.out.println("Not capitalized but should be: " + words[idx]);
-                    errorCounts.put(ErrorType.CAPITALIZATION, errorCounts.getOrDefault(ErrorType.CAPITALIZATION, 0) + 1);
-                    this.currentErrorType = ErrorType.CAPITALIZATION;
-                    this.currentSuggestions = checker.getSuggestions(words[idx]);
-                    return new Error(words[idx]);
+                // skip empty lines and spaces
+                if (!LineChecker.isWord(words.get(idx))) {
+                    continue;
                 }
-            }
-            // Current word is cap but prev word has no punct
-            if (idx - 2 >= 0 && !words[idx - 2].equals(" ") && !hasEndPunct(words[idx - 2])){
 
-                if (checker.isAcronym(checker.removeTags(words[idx]))) continue;   
+                wordCount++;
 
-                if (checker.checkCapitalization(checker.removeTags(words[idx]))) {
-                    System.out.println("Capitalized but shouldn't be: " + words[idx]);
-                    errorCounts.put(ErrorType.MISCAPITALIZATION, errorCounts.getOrDefault(ErrorType.MISCAPITALIZATION, 0) + 1);
-                    this.currentErrorType = ErrorType.MISCAPITALIZATION;
-                    this.currentSuggestions = checker.getSuggestions(words[idx]);
-                    return new Error(words[idx]);
+                ErrorType errorType = lineChecker.check(words, idx);
+                if (errorType != null) {
+                    System.out.println(errorType + ": " + words.get(idx));
+                    rememberContext(words, idx);
+                    return flagError(errorType, words.get(idx));
                 }
             }
-            if (hasEndPunct(words[currWordIndex])){
-                if (!checker.isValidWord(words[idx].substring(0, words[idx].length() - 1))) {
-                    System.out.println("Not a valid word: " + words[idx]);
-                    this.currentSuggestions = checker.getSuggestions(words[idx]);   
-                    errorCounts.put(ErrorType.SPELLING, errorCounts.getOrDefault(ErrorType.SPELLING, 0) + 1);
-                    this.currentErrorType = ErrorType.SPELLING;
-                    return new Error(words[idx]); // error if word is not in dictionary
-                }
-            }
-            else if (!hasEndPunct(words[currWordIndex])){
-                if (!checker.isValidWord(words[idx])) {
-                    System.out.println("Not a valid word: " + words[idx]);
-                    this.currentSuggestions = checker.getSuggestions(words[idx]);   
-                    errorCounts.put(ErrorType.SPELLING, errorCounts.getOrDefault(ErrorType.SPELLING, 0) + 1);
-                    this.currentErrorType = ErrorType.SPELLING;
-                    return new Error(words[idx]); // error if word is not in dictionary
-                }
-            }
-
-        }
-        this.charCount += this.currentContext.length();
-        updateProgress(currentContext);
+            this.charCount += words.length();
+            updateProgress(reader.position() - bytesRead);
 
-        // Write words to file and go to next line in document
-        if (!saveContext(words))
-            throw new Error("Write to buffer failed: spellCheckFile()");
+            // Write words to file and go to next line in document, text is only rebuilt if the line was edited
+            if (!saveContext(words.text()))
+                throw new Error("Write to buffer failed: spellCheckFile()");
 
-        String nextLine = readLine();
+            String nextLine = readLine();
+            if (nextLine == null) {
+                break;
+            }
 
-        if (nextLine != null) {
+            // loop instead of recursing so long documents without errors can't overflow the stack
             lineCount++;
+            idx = 0;
             this.currWordIndex = 0;
-            this.currentContext = nextLine;
-            this.currentContext = updateContextReplaceAll(); // get next line and update replace
-            return spellCheckFile(this.currentContext, this.currWordIndex);
+            setContext(updateContextReplaceAll(nextLine)); // next line with words already requested to be replaced
         }
 
         System.out.println("Document: Spell-checking complete.");
@@ -275,31 +299,140 @@ public class Document {
 
 
     /**
-     * Clean context with words already requested to be replaced
-     * @return Current error in document
+     * Records error of given type for a word and fetches its suggestions
+     * @param errorType Type of error found
+     * @param word Word error was found at
+     * @return Error object of current error
      */
-    private String updateContextReplaceAll() {
-        String[] words = currentContext.split("(?<=\\s)|(?=\\s)");
-        String[] updatedWords = new String[words.length];
+    private Error flagError(ErrorType errorType, String word) {
+        errorCounts.put(errorType, errorCounts.getOrDefault(errorType, 0) + 1);
+        occurrenceCounts.put(word, occurrenceCounts.getOrDefault(word, 0) + 1);
+        this.currentErrorType = errorType;
+        if (deferSuggestions) {
+            suggestions.prefetch(word, 0); // start on it now, awaited separately
+        } else {
+            this.currentSuggestions = bigrams.rerank(getSuggestions(word), contextLeft, contextRight);
+        }
+        prefetchSuggestions();
+        return new Error(word);
+    }
 
-        for (int i = 0; i < words.length; i++) {
-            if (replaceAllWords.containsKey(words[i])) { // replace replace-all words
-                updatedWords[i] = replaceAllWords.get(words[i]);
-            } else {
-                updatedWords[i] = words[i];
+    /**
+     * Keeps the words either side of an error to rerank its suggestions, suggestions are shared by all occurrences
+     * of a misspelling so context is applied to each occurrence afterwards
+     * @param words Tokens of line
+     * @param idx Index of error in words
+     */
+    private void rememberContext(TokenLine words, int idx) {
+        String word = words.get(idx);
+        boolean joinsLeft = Character.isLetter(word.charAt(0));
+        boolean joinsRight = Character.isLetter(word.charAt(word.length() - 1));
+        this.contextLeft = joinsLeft && idx >= 2 ? BigramModel.contextWord(words.get(idx - 2), true) : null;
+        this.contextRight = joinsRight && idx + 2 < words.size() ? BigramModel.contextWord(words.get(idx + 2), false) : null;
+    }
+
+    /**
+     * Gets suggestions for a misspelling, computed once for all of its occurrences
+     * @param word Misspelled word
+     * @return Array of suggested words, null if interrupted
+     */
+    private String[] getSuggestions(String word) {
+        try {
+            return suggestions.get(word);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Waits for suggestions of current error computed in the background, used with deferSuggestions
+     * @return Array of suggested words, null if there is no current error
+     * @throws InterruptedException If interrupted while waiting, suggestions keep being computed
+     */
+    public String[] awaitSuggestions() throws InterruptedException {
+        if (closed || currentError == null) {
+            return null;
+        }
+        try {
+            String[] found = suggestions.request(currentError.getMessage()).get();
+            this.currentSuggestions = bigrams.rerank(found, contextLeft, contextRight);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return currentSuggestions;
+    }
+
+    /**
+     * Gets char offset of current word in current context, kept by the token line as checking moves along it
+     * @return Sum of lengths of tokens before current word
+     */
+    public int currentErrorOffset() {
+        return line == null ? 0 : line.offsetOf(Math.min(currWordIndex, line.size()));
+    }
+
+    /**
+     * Schedules suggestions for the errors after the current one, nearest first
+     */
+    private void prefetchSuggestions() {
+        int charPos = currentErrorOffset(); // errors before it on this line have already been shown
+
+        int scheduled = 0;
+        for (int i = errorIndex.firstOnOrAfter(lineNumber); i < errorIndex.size() && scheduled < SuggestionScheduler.PREFETCH_AHEAD; i++) {
+            if (errorIndex.line(i) == lineNumber && errorIndex.spanStart(i) <= charPos) {
+                continue;
+            }
+            try {
+                suggestions.prefetch(errorIndex.word(i), ++scheduled);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
             }
         }
+    }
 
-        return String.join("", updatedWords);
+    /**
+     * Forget cached verdicts and suggestions, called when ignore list, dictionary or replacements change
+     */
+    private void invalidateCache() {
+        lineChecker.invalidate();
+        suggestions.clear();
+    }
+
+    /**
+     * Gets number of times a misspelling occurs in the document, counted by the error index over the whole file.
+     * Until the index is complete, or where edits added occurrences, the number flagged so far can be higher
+     * @param word Misspelled word
+     * @return Number of occurrences of misspelling
+     */
+    public int getOccurrenceCount(String word) {
+        return Math.max(errorIndex.occurrences(word), occurrenceCounts.getOrDefault(word, 0));
+    }
+
+    /**
+     * Clean context with words already requested to be replaced
+     * @param context Text of line
+     * @return Text of line with replacements made
+     */
+    private String updateContextReplaceAll(String context) {
+        return replaceAllRules.apply(context); // all rules in one pass over the line
     }
 
     /**
      * Updates progress of spell-checking document
-     * @param currentContext Current context of document
+     * @param currentContext Text checked, counted by its UTF-8 encoded size
      */
     public void updateProgress(String currentContext) {
-        this.bytesRead += currentContext.length();
-        this.progress = (bytesRead / totalFileSize) * 100;
+        updateProgress(currentContext.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * Updates progress of spell-checking document
+     * @param bytes Number of bytes of document checked, including line terminators
+     */
+    public void updateProgress(long bytes) {
+        this.bytesRead += bytes;
+        this.progress = totalFileSize == 0 ? 100 : ((float) bytesRead / totalFileSize) * 100;
     }
 
     /**
@@ -363,11 +496,13 @@ public class Document {
     }
 
     /**
-     * Close buffered reader and writer and destroy output file
+     * Close reader and destroy output file
      */
     private void handleDestroyFile() {
         closeBufferReader();
-        closeBufferedWriter();
+        errorIndex.close();
+        suggestions.shutdown();
+        closed = true;
         if (!destroyOutputFile())
             throw new Error(
                     "Error destroying output file. May still exist in directory of program. But not a big deal because it gets overwritten");
@@ -379,10 +514,14 @@ public class Document {
      */
     private void handleExit(String eventType) {
         closeBufferReader(); // Probably don't need this b/c exiting when no more context in readLine() and
-                             // it closes br and bw
-        closeBufferedWriter();
+                             // it closes the reader
+        errorIndex.close();
+        suggestions.shutdown();
+        closed = true;
         String savePath = eventType.substring("exit:".length());
         System.out.println("savepath (doc): " + savePath);
+        if (!writeOutputFile())
+            throw new Error("Failed to write temp output file: " + tempOutput);
         if (!moveOutputFile(savePath))
             throw new Error("Failed to move temp output file to savepath: " + savePath);
     }
@@ -391,7 +530,7 @@ public class Document {
      * Handle event for exiting document prematurely
      */
     private void handlePrematureExit() {
-        if (!saveContext(currentContext.split("(?<=\\s)|(?=\\s)")))
+        if (line != null && !saveContext(line.text()))
             throw new Error("Write to buffer failed: in handle-Event(), premature-exit"); // write whatever context we
     }
 
@@ -400,12 +539,14 @@ public class Document {
      */
     private void handleAddToDict(){
         // added to dictionary in UI button handler before coming to document
-        String[] words = currentContext.split("(?<=\\s)|(?=\\s)");
-        if (!checker.addToDictionary(words[currWordIndex])) {
-            throw new Error("Failed to add word to dictionary: " + words[currWordIndex]);
+        TokenLine words = line;
+        if (!checker.addToDictionary(words.get(currWordIndex))) {
+            throw new Error("Failed to add word to dictionary: " + words.get(currWordIndex));
         }
+        invalidateCache();
+        errorIndex.invalidate();
 
-        this.currentError = spellCheckFile(currentContext, currWordIndex+1);
+        this.currentError = spellCheckFile(currWordIndex+1);
     }
 
     /**
@@ -415,32 +556,28 @@ public class Document {
     private void handleManualEdit(String eventType) {
         // **FIX** for html
         String manualCorrection = eventType.substring("manual-edit:".length());
-        String[] wordArr = currentContext.split("(?<=\\s)|(?=\\s)");
-        String[] updatedWords = new String[wordArr.length];
+        TokenLine words = line;
 
-        System.arraycopy(wordArr, 0, updatedWords, 0, currWordIndex); // src arr, start index, dest array, start index,
-                                                                      // len
-        updatedWords[currWordIndex] = manualCorrection;
-        System.arraycopy(wordArr, currWordIndex + 1, updatedWords, currWordIndex + 1,
-                wordArr.length - 1 - currWordIndex);
+        suggestions.cancel(words.get(currWordIndex)); // edited away, drop prefetch if not started
+        words.replace(currWordIndex, 1, manualCorrection); // may be more than one word
 
-        this.currentContext = String.join("", updatedWords);
-        this.currentError = spellCheckFile(currentContext, currWordIndex);
+        // re-check from the edited word, the words after it see it as their neighbour
+        this.currentError = spellCheckFile(currWordIndex);
     }
 
     /**
      * Handle event for deleting current error
      */
     private void handleDelete() {
-        String[] words = currentContext.split("(?<=\\s)|(?=\\s)");
-        String[] updatedWordsAfterDeletion = new String[words.length];
+        TokenLine words = line;
 
-        boolean isLastWord = currWordIndex == words.length - 1;
+        boolean isLastWord = currWordIndex == words.size() - 1;
+        suggestions.cancel(words.get(currWordIndex)); // deleted, drop prefetch if not started
         
         // If only word
-        if (words.length == 1) {
-            this.currentContext = "";
-            currentError = spellCheckFile(this.currentContext, this.currWordIndex + 1);
+        if (words.size() == 1) {
+            setContext("");
+            currentError = spellCheckFile(this.currWordIndex + 1);
             wordCount--;
             return;
         }
@@ -448,46 +585,38 @@ public class Document {
         // Deleting last word
         if (isLastWord) {
             System.out.println("Del last word");
-            updatedWordsAfterDeletion = new String[words.length - 2]; // Delete space before last word
 
-            if (hasEndPunct(words[currWordIndex])) { // Add punct
-                String punct = String.valueOf(words[currWordIndex].charAt(words[currWordIndex].length() - 1));
-                words[currWordIndex - 2] += punct;
+            if (hasEndPunct(words.get(currWordIndex)) && currWordIndex - 2 >= 0) { // Add punct
+                String punct = String.valueOf(words.get(currWordIndex).charAt(words.get(currWordIndex).length() - 1));
+                words.set(currWordIndex - 2, words.get(currWordIndex - 2) + punct);
             }
 
-            System.arraycopy(words, 0, updatedWordsAfterDeletion, 0, words.length - 2);
+            words.remove(currWordIndex - 1, 2); // Delete space before last word
         }
 
         // Delete all other words
-        else if (words[currWordIndex + 1].equals(" ") && !words[currWordIndex].equals(" ")) {
+        else if (words.get(currWordIndex + 1).equals(" ") && !words.get(currWordIndex).equals(" ")) {
             System.out.println("Del any word");
-            updatedWordsAfterDeletion = new String[words.length - 2];
 
             // If current letter has punct, cap next letter and add punct to end of prev word
-            if (currWordIndex + 2 >= 0 && currWordIndex + 2 < words.length && !words[currWordIndex + 2].equals(" ")
-                    && hasEndPunct(words[currWordIndex])) {
-                String punct = String.valueOf(words[currWordIndex].charAt(words[currWordIndex].length() - 1));
-                words[currWordIndex + 2] = Character.toUpperCase(words[currWordIndex + 2].charAt(0))
-                        + words[currWordIndex + 2].substring(1);
-                words[currWordIndex - 2] += punct;
+            if (currWordIndex + 2 < words.size() && !words.get(currWordIndex + 2).equals(" ")
+                    && hasEndPunct(words.get(currWordIndex))) {
+                String punct = String.valueOf(words.get(currWordIndex).charAt(words.get(currWordIndex).length() - 1));
+                words.set(currWordIndex + 2, capitalize(words.get(currWordIndex + 2)));
+                if (currWordIndex - 2 >= 0) words.set(currWordIndex - 2, words.get(currWordIndex - 2) + punct);
             }
 
             // If prev letter has punct cap next letter
-            if (currWordIndex + 2 >= 0 && currWordIndex + 2 < words.length && !words[currWordIndex + 2].equals(" ")
-                    && currWordIndex - 2 >= 0 && hasEndPunct(words[currWordIndex - 2])) {
-                words[currWordIndex + 2] = Character.toUpperCase(words[currWordIndex + 2].charAt(0))
-                        + words[currWordIndex + 2].substring(1);
+            if (currWordIndex + 2 < words.size() && !words.get(currWordIndex + 2).equals(" ")
+                    && currWordIndex - 2 >= 0 && hasEndPunct(words.get(currWordIndex - 2))) {
+                words.set(currWordIndex + 2, capitalize(words.get(currWordIndex + 2)));
             }
-            
 
-            System.arraycopy(words, 0, updatedWordsAfterDeletion, 0, currWordIndex);
-            System.arraycopy(words, currWordIndex + 2, updatedWordsAfterDeletion, currWordIndex,
-                    words.length - 2 - currWordIndex);
+            words.remove(currWordIndex, 2); // Delete word and space after it
         }
 
-        String updatedContext = String.join("", updatedWordsAfterDeletion);
-        currentContext = updatedContext;
-        currentError = spellCheckFile(updatedContext, this.currWordIndex);
+        // re-check from where the word was, the word now there has a new neighbour
+        currentError = spellCheckFile(this.currWordIndex);
         // if (currWordIndex < words.length && !words[currWordIndex].equals(" ")) wordCount--;
         wordCount--;
     }
@@ -496,16 +625,17 @@ public class Document {
      * Handle event for ignoring current error fro remainder of document
      */
     private void handleIgnoreAll() {
-        String[] wordArr = currentContext.split("(?<=\\s)|(?=\\s)");
-        checker.ignoreAll(wordArr[currWordIndex]);
-        this.currentError = spellCheckFile(currentContext, this.currWordIndex += 1);
+        checker.ignoreAll(line.get(currWordIndex));
+        invalidateCache();
+        errorIndex.invalidate();
+        this.currentError = spellCheckFile(this.currWordIndex += 1);
     }
 
     /**
      * Handle event for ignoring current error
      */
     private void handleIgnore() {
-        this.currentError = spellCheckFile(currentContext, this.currWordIndex += 1);
+        this.currentError = spellCheckFile(this.currWordIndex += 1);
     }
 
     /**
@@ -513,13 +643,12 @@ public class Document {
      * @param eventType Event type being handled
      */
     private void handleReplaceAll(String eventType) {
-        String[] words = currentContext.split("(?<=\\s)|(?=\\s)");
-
         String target = eventType.substring("replace-all:".length());
-        replaceAllWords.put(words[currWordIndex], target);
+        replaceAllRules.addRule(line.get(currWordIndex), target);
+        invalidateCache();
 
-        this.currentContext = updateContextReplaceAll();
-        this.currentError = spellCheckFile(currentContext, this.currWordIndex += 1);
+        setContext(updateContextReplaceAll(line.text()));
+        this.currentError = spellCheckFile(this.currWordIndex += 1);
     }
 
     /**
@@ -527,22 +656,19 @@ public class Document {
      * @param eventType Event type being handled
      */
     private void handleReplace(String eventType) {
-        String[] words = currentContext.split("(?<=\\s)|(?=\\s)");
-        String[] updatedWords = new String[words.length];
+        TokenLine words = line;
 
         String target = eventType.substring("replace:".length()); // get replacement word after 'replace:..'
 
-        System.arraycopy(words, 0, updatedWords, 0, currWordIndex); // src arr, start index, dest array, start index,
-                                                                    // len
-        if (hasEndPunct(words[currWordIndex])) {
-            char lastPunctuation = words[currWordIndex].charAt(words[currWordIndex].length() - 1);
-            updatedWords[currWordIndex] = target+lastPunctuation;
+        if (hasEndPunct(words.get(currWordIndex))) {
+            char lastPunctuation = words.get(currWordIndex).charAt(words.get(currWordIndex).length() - 1);
+            target += lastPunctuation;
         }
-        else updatedWords[currWordIndex] = target;
-        System.arraycopy(words, currWordIndex + 1, updatedWords, currWordIndex + 1, words.length - 1 - currWordIndex);
+        suggestions.cancel(words.get(currWordIndex)); // replaced, drop prefetch if not started
+        int inserted = words.replace(currWordIndex, 1, target);
 
-        currentContext = String.join("", updatedWords);
-        currentError = spellCheckFile(currentContext, this.currWordIndex += 1);
+        // continue after the replacement, the word after it is re-checked against its new neighbour
+        currentError = spellCheckFile(this.currWordIndex += Math.max(inserted, 1));
     }
 
     /**
@@ -564,18 +690,20 @@ public class Document {
         }
         return 0;
     }
+    /**
+     * Capitalizes first letter of word
+     */
+    private static String capitalize(String word) {
+        return word.isEmpty() ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
     /**
      * Checks if word ends with punctuation
      * @param word Word to check for end punctuation
      * @return True if word ends with punctuation, else false
      */
     private boolean hasEndPunct(String word) {
-        String[] punctuationMarks = { ".", "!", "?" }; // **FIX* not checking commas
-        for (String punct : punctuationMarks) {
-            if (word.endsWith(punct))
-                return true;
-        }
-        return false;
+        return LineChecker.hasEndPunct(word);
     }
 
     /**
@@ -585,50 +713,71 @@ public class Document {
     private String readLine() {
         String line = "";
         try {
-            line = br.readLine();
+            line = reader.readLine();
 
             // EoF
             if (line == null) {
                 System.out.println("End of file");
                 closeBufferReader();
-                closeBufferedWriter();
                 return null;
             }
 
+            // remember where line came from so edits can be patched into the output
+            this.lineNumber++;
+            this.originalContext = line;
+            this.contextStart = reader.lineStart();
+            this.contextEnd = reader.lineEnd();
+
             // skip tags if html or xml--reading lines instead of just extension (.txt can
             // contain html, xml too)
             if (line.trim().startsWith("<!DOCTYPE html") || line.trim().startsWith("<?xml")) {
-                // Prompt
-                Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                alert.initModality(Modality.APPLICATION_MODAL); // modal to entire app, block other windows
-                alert.setTitle("Tags detected");
-                alert.setHeaderText("HTML or XML files not supported.");
-                alert.setContentText("Unable to spellcheck HTML or XML tags. The program will end.");
-
-                // Add buttons to the alert
-                ButtonType okButton = new ButtonType("Ok");
-                alert.getButtonTypes().setAll(okButton);
-                
-                Optional<ButtonType> result = alert.showAndWait();
-                if (result.isPresent() && result.get() == okButton) {
+                if (!Platform.isFxApplicationThread()) {
+                    // checking off the UI thread, prompt on it and wait for the answer
+                    FutureTask<Boolean> prompt = new FutureTask<>(this::promptTagsDetected);
+                    Platform.runLater(prompt);
+                    return prompt.get() ? null : line;
+                }
+                if (promptTagsDetected()) {
                     return null;
                 }
             }
 
-        } catch (IOException e) {
+        } catch (IOException | ExecutionException e) {
             e.printStackTrace(); // Handle the exception based on your application's requirements
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         }
 
         return line; // Returns all words up until \n, null if EoF
     }
 
     /**
-     * Helper to close buffered reader
+     * Prompts user that html or xml can't be checked, must be called on the JavaFX thread
+     * @return True if user confirmed and checking should end
+     */
+    private boolean promptTagsDetected() {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.initModality(Modality.APPLICATION_MODAL); // modal to entire app, block other windows
+        alert.setTitle("Tags detected");
+        alert.setHeaderText("HTML or XML files not supported.");
+        alert.setContentText("Unable to spellcheck HTML or XML tags. The program will end.");
+
+        // Add buttons to the alert
+        ButtonType okButton = new ButtonType("Ok");
+        alert.getButtonTypes().setAll(okButton);
+
+        Optional<ButtonType> result = alert.showAndWait();
+        return result.isPresent() && result.get() == okButton;
+    }
+
+    /**
+     * Helper to close mapped reader
      */
     private void closeBufferReader() {
         try {
-            if (br != null) {
-                br.close();
+            if (reader != null) {
+                reader.close();
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -636,34 +785,29 @@ public class Document {
     }
 
     /**
-     * Helper to close buffered writer
+     * Saves context to file, only lines that were changed are recorded as patches
+     * @param context Text of line to be saved to file
+     * @return True if context was saved to file, else false
      */
-    private void closeBufferedWriter() {
-        try {
-            if (bw != null) {
-                bw.close();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+    private boolean saveContext(String context) {
+        if (!context.equals(originalContext)) {
+            writer.replace(contextStart, contextEnd, context); // line terminator is left as in original
         }
+        this.savedThrough = reader.position();
+        return true;
     }
 
     /**
-     * Saves context to file
-     * @param contextWords Array of words to be saved to file
-     * @return True if context was saved to file, else false
+     * Writes saved lines of document to temp output file, copying unchanged regions straight from the original
+     * @return True if output file was written, else false
      */
-    private boolean saveContext(String[] contextWords) {
+    private boolean writeOutputFile() {
         try {
-            for (String word : contextWords) {
-                bw.write(word);
-            }
-            bw.write("\n");
+            writer.writeTo(Path.of(tempOutput), savedThrough);
         } catch (IOException e) {
             e.printStackTrace();
             return false;
         }
-
         return true;
     }
 
@@ -720,7 +864,7 @@ public class Document {
         Path sourcePath = Path.of(tempOutput);
 
         try {
-            Files.delete(sourcePath);
+            Files.deleteIfExists(sourcePath); // only written on exit, may not exist yet
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,268 @@
+package org.openjfx;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+
+/**
+ * Session running all document and spell checker work off the JavaFX thread.
+ * Every event is queued on one session thread, the only thread that touches the document, so events are applied
+ * one at a time in the order they were submitted. Results are posted back with Platform.runLater in two steps: a
+ * snapshot as soon as the next error is found, then its suggestions once computed. Submitting again while
+ * suggestions are still being computed interrupts the wait, the next event runs once it has stopped.
+ */
+public class DocumentSession {
+    /**
+     * Single thread all events are applied on, in order
+     */
+    private static final ExecutorService SESSION_THREAD = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "document-session");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs results on the JavaFX thread
+     */
+    private final Executor fxThread;
+
+    /**
+     * Document being checked, only touched on the session thread
+     */
+    private Document document;
+
+    /**
+     * Called on the JavaFX thread with each snapshot and with suggestions once computed
+     */
+    private Consumer<DocumentSnapshot> onSnapshot = snapshot -> {};
+    private Consumer<String[]> onSuggestions = suggestions -> {};
+
+    /**
+     * Last work submitted, only touched on the JavaFX thread
+     */
+    private Work last;
+
+    /**
+     * Number of events submitted whose snapshot hasn't been posted, and of pieces of work not finished,
+     * only touched on the JavaFX thread
+     */
+    private int unapplied;
+    private int unfinished;
+
+    /**
+     * True from when an event is submitted until the snapshot of the last one queued is posted
+     */
+    private final ReadOnlyBooleanWrapper applying = new ReadOnlyBooleanWrapper(this, "applying");
+
+    /**
+     * True while any work is queued or running, including the wait for suggestions
+     */
+    private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(this, "running");
+
+    /**
+     * Constructor, results are posted with Platform.runLater
+     */
+    public DocumentSession() {
+        this(Platform::runLater);
+    }
+
+    /**
+     * Constructor
+     * @param fxThread Runs results on the thread that submits work, in order, as Platform.runLater does
+     */
+    public DocumentSession(Executor fxThread) {
+        this.fxThread = fxThread;
+    }
+
+    /**
+     * Opens a document on the session thread and starts spell-checking it
+     * @param opener Creates the document, dictionaries can be loaded here too
+     */
+    public void open(Callable<Document> opener) {
+        run(new Work(opener, null, null));
+    }
+
+    /**
+     * Queues an event to be applied to the document on the session thread
+     * @param event Event type, as for Document.handleEvent()
+     */
+    public void submit(String event) {
+        submit(event, null);
+    }
+
+    /**
+     * Queues an event to be applied to the document on the session thread, after every event submitted before it
+     * @param event Event type, as for Document.handleEvent()
+     * @param then Called on the JavaFX thread once the event has been applied
+     */
+    public void submit(String event, Runnable then) {
+        run(new Work(null, event, then));
+    }
+
+    /**
+     * @param onSnapshot Called on the JavaFX thread with a snapshot after each event
+     */
+    public void setOnSnapshot(Consumer<DocumentSnapshot> onSnapshot) {
+        this.onSnapshot = onSnapshot;
+    }
+
+    /**
+     * @param onSuggestions Called on the JavaFX thread with suggestions for the current error once computed
+     */
+    public void setOnSuggestions(Consumer<String[]> onSuggestions) {
+        this.onSuggestions = onSuggestions;
+    }
+
+    /**
+     * @return Property that is true while an event is queued or being applied, actions taken then would be on an
+     *         error the user hasn't seen yet
+     */
+    public ReadOnlyBooleanProperty applyingProperty() {
+        return applying.getReadOnlyProperty();
+    }
+
+    /**
+     * @return Property that is true while any work is queued or running
+     */
+    public ReadOnlyBooleanProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+
+    /**
+     * Queues work behind everything submitted before it, stopping the last work's wait on suggestions
+     */
+    private void run(Work work) {
+        if (last != null) {
+            last.supersede();
+        }
+        last = work;
+        unapplied++;
+        unfinished++;
+        applying.set(true);
+        running.set(true);
+        SESSION_THREAD.execute(work);
+    }
+
+    /**
+     * Called on the JavaFX thread once an event has been applied, or has failed
+     */
+    private void applied() {
+        applying.set(--unapplied > 0);
+    }
+
+    /**
+     * Called on the JavaFX thread once work has finished
+     */
+    private void finished() {
+        running.set(--unfinished > 0);
+    }
+
+    /**
+     * One event, or opening the document, followed by the wait for suggestions of the error it lands on
+     */
+    private class Work implements Runnable {
+        private final Callable<Document> opener;
+        private final String event;
+        private final Runnable then;
+
+        /**
+         * Set once later work is queued, and while waiting on suggestions, guarded by this.
+         * Only the wait may be interrupted, interrupting a file channel closes it
+         */
+        private boolean superseded;
+        private Thread waiting;
+
+        Work(Callable<Document> opener, String event, Runnable then) {
+            this.opener = opener;
+            this.event = event;
+            this.then = then;
+        }
+
+        /**
+         * Stops the wait for suggestions, or skips it if it hasn't started, the event itself always runs to the end
+         */
+        synchronized void supersede() {
+            superseded = true;
+            if (waiting != null) {
+                waiting.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                DocumentSnapshot snapshot = apply();
+                if (snapshot != null && !snapshot.isComplete()) {
+                    awaitSuggestions();
+                }
+            } finally {
+                fxThread.execute(DocumentSession.this::finished);
+            }
+        }
+
+        /**
+         * Applies event and posts snapshot of document after it, the event is marked applied even if it fails
+         * @return Snapshot, null if the event failed
+         */
+        private DocumentSnapshot apply() {
+            DocumentSnapshot snapshot = null;
+            try {
+                if (opener != null) {
+                    document = opener.call();
+                    document.deferSuggestions = true;
+                    document.startSpellCheck();
+                } else {
+                    document.handleEvent(event);
+                }
+                snapshot = DocumentSnapshot.of(document);
+            } catch (Exception | Error e) {
+                e.printStackTrace(); // Document reports failures by throwing Error
+            } finally {
+                DocumentSnapshot posted = snapshot;
+                fxThread.execute(() -> {
+                    applied();
+                    if (posted != null) {
+                        onSnapshot.accept(posted);
+                        if (then != null) {
+                            then.run();
+                        }
+                    }
+                });
+            }
+            return snapshot;
+        }
+
+        /**
+         * Waits for suggestions of current error and posts them, unless later work has been queued
+         */
+        private void awaitSuggestions() {
+            synchronized (this) {
+                if (superseded) {
+                    return;
+                }
+                waiting = Thread.currentThread();
+            }
+            try {
+                String[] suggestions = document.awaitSuggestions();
+                if (suggestions != null) {
+                    fxThread.execute(() -> onSuggestions.accept(suggestions));
+                }
+            } catch (InterruptedException e) {
+                // user acted again, suggestions keep being computed in the background for later
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                synchronized (this) {
+                    waiting = null;
+                    Thread.interrupted(); // clear an interrupt that came after the wait ended
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.openjfx;
+
+import org.openjfx.Document.ErrorType;
+
+/**
+ * Immutable copy of the state of a document shown by the UI.
+ * Taken on the session thread after each event so the JavaFX thread never reads a document being changed.
+ */
+public final class DocumentSnapshot {
+    /**
+     * Current context of document
+     */
+    public final String context;
+
+    /**
+     * Line number of context in file, starting at 0
+     */
+    public final int lineNumber;
+
+    /**
+     * Word of current error, null if spell-checking is complete
+     */
+    public final String errorWord;
+
+    /**
+     * Char offset of current error in context, -1 if spell-checking is complete
+     */
+    public final int errorStart;
+
+    /**
+     * Type of current error
+     */
+    public final ErrorType errorType;
+
+    /**
+     * Number of times current error occurs in the document, all occurrences once the error index is complete
+     */
+    public final int occurrences;
+
+    /**
+     * Progress of spell-checking document
+     */
+    public final float progress;
+
+    /**
+     * Statistics of document, error counts are totals of the whole file once the error index is complete and the
+     * errors found so far until then
+     */
+    public final int wordCount;
+    public final int lineCount;
+    public final int charCount;
+    public final int spellingErrors;
+    public final int doubleWordErrors;
+    public final int capErrors;
+    public final int miscapErrors;
+    public final int errorsInFile;
+
+    /**
+     * Index of all errors in file, safe to read from any thread
+     */
+    public final ErrorIndex errorIndex;
+
+    /**
+     * Suggestions for current error, null if still being computed
+     */
+    private final String[] suggestions;
+
+    private DocumentSnapshot(Document document, String[] suggestions) {
+        this.context = document.currentContext(); // built once per edit, when the UI needs it
+        this.lineNumber = document.lineNumber;
+        this.errorWord = document.currentError == null ? null : document.currentError.getMessage();
+        this.errorStart = errorWord == null ? -1 : document.currentErrorOffset();
+        this.errorType = document.currentErrorType;
+        this.occurrences = errorWord == null ? 0 : document.getOccurrenceCount(errorWord);
+        this.progress = document.progress;
+        this.wordCount = document.wordCount;
+        this.lineCount = document.lineCount;
+        this.charCount = document.charCount;
+        ErrorIndex index = document.errorIndex;
+        boolean indexed = index.isComplete();
+        this.spellingErrors = indexed ? index.count(ErrorType.SPELLING) : document.getErrorCounts("spelling-errors");
+        this.doubleWordErrors = indexed ? index.count(ErrorType.DOUBLE_WORD) : document.getErrorCounts("double-words");
+        this.capErrors = indexed ? index.count(ErrorType.CAPITALIZATION) : document.getErrorCounts("cap-errors");
+        this.miscapErrors = indexed ? index.count(ErrorType.MISCAPITALIZATION)
+                : document.getErrorCounts("miscap-errors");
+        this.errorsInFile = index.size();
+        this.errorIndex = index;
+        this.suggestions = suggestions == null ? null : suggestions.clone();
+    }
+
+    /**
+     * Takes snapshot of a document, must be called on the thread that owns the document
+     * @param document Document to copy state of
+     * @return Snapshot of document
+     */
+    static DocumentSnapshot of(Document document) {
+        return new DocumentSnapshot(document, document.currentSuggestions);
+    }
+
+    /**
+     * @return True if no errors remain
+     */
+    public boolean isComplete() {
+        return errorWord == null;
+    }
+
+    /**
+     * @return Copy of suggestions for current error, null if still being computed
+     */
+    public String[] getSuggestions() {
+        return suggestions == null ? null : suggestions.clone();
+    }
+}
@@ -0,0 +1,286 @@
+package org.openjfx;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import javafx.util.Duration;
+
+/**
+ * Viewer showing a whole document one line per row, however large the file.
+ * Rows are just line numbers, so only the visible lines are ever read: each is fetched from the memory-mapped
+ * file through the error index's line offsets and highlighted with the errors found on it.
+ */
+public class DocumentViewer extends ListView<Integer> {
+    /**
+     * Number of recently shown lines kept in memory
+     */
+    static final int CACHE_LINES = 512;
+
+    /**
+     * Longest part of a line rendered, the rest is cut off
+     */
+    static final int MAX_RENDERED_CHARS = 2000;
+
+    /**
+     * Height of a row, fixed so scrolling doesn't measure every line
+     */
+    private static final double ROW_HEIGHT = 22;
+
+    /**
+     * List of line numbers 0 .. n-1 without storing any of them, grows as lines are indexed
+     */
+    private static class LineList extends ObservableListBase<Integer> {
+        private int size;
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Line " + index + " of " + size);
+            }
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void grow(int newSize) {
+            if (newSize <= size) {
+                return;
+            }
+            beginChange();
+            nextAdd(size, newSize);
+            size = newSize;
+            endChange();
+        }
+    }
+
+    /**
+     * Row showing one line of document with its errors highlighted
+     */
+    private class LineCell extends ListCell<Integer> {
+        private final TextFlow flow = new TextFlow();
+
+        @Override
+        protected void updateItem(Integer line, boolean empty) {
+            super.updateItem(line, empty);
+            setText(null);
+            if (empty || line == null) {
+                setGraphic(null);
+                return;
+            }
+            flow.getChildren().setAll(render(line));
+            setGraphic(flow);
+        }
+    }
+
+    /**
+     * Reader of file being shown
+     */
+    private MappedTextReader reader;
+
+    /**
+     * Index of errors and line offsets of file being shown
+     */
+    private ErrorIndex errorIndex;
+
+    /**
+     * Lines read recently, least recently used are dropped first
+     */
+    private final Map<Integer, String> cache = new LinkedHashMap<>(CACHE_LINES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > CACHE_LINES;
+        }
+    };
+
+    /**
+     * Line being checked, shown as edited so far, with its current error
+     */
+    private int currentLine = -1;
+    private String currentText;
+    private int errorStart = -1;
+    private int errorLength;
+
+    /**
+     * Polls the index for new lines while it is being built
+     */
+    private final Timeline poll = new Timeline(new KeyFrame(Duration.millis(250), e -> refreshLineCount()));
+
+    /**
+     * Constructor, creates empty viewer
+     */
+    public DocumentViewer() {
+        setFixedCellSize(ROW_HEIGHT);
+        setCellFactory(view -> new LineCell());
+        poll.setCycleCount(Animation.INDEFINITE);
+    }
+
+    /**
+     * Shows a file, lines appear as the index reaches them
+     * @param path File to be shown
+     * @param errorIndex Index of file, errors in it are highlighted
+     * @throws IOException If file cannot be opened
+     */
+    public void open(Path path, ErrorIndex errorIndex) throws IOException {
+        close();
+        this.reader = new MappedTextReader(path);
+        this.errorIndex = errorIndex;
+        setItems(new LineList());
+        refreshLineCount();
+        poll.play();
+    }
+
+    /**
+     * @return True if a file is being shown
+     */
+    public boolean isOpen() {
+        return reader != null;
+    }
+
+    /**
+     * Shows line being checked and scrolls to it
+     * @param line Line number, starting at 0
+     * @param text Text of line with edits so far
+     * @param errorStart Char offset of current error in text, -1 if none
+     * @param errorLength Length of current error
+     */
+    public void showCurrent(int line, String text, int errorStart, int errorLength) {
+        boolean moved = line != currentLine;
+        this.currentLine = line;
+        this.currentText = text;
+        this.errorStart = errorStart;
+        this.errorLength = errorLength;
+        refresh();
+        if (moved) {
+            scrollToCurrent();
+        }
+    }
+
+    /**
+     * Stops polling and closes file
+     */
+    public void close() {
+        poll.stop();
+        cache.clear();
+        setItems(null);
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        reader = null;
+    }
+
+    /**
+     * Adds lines indexed since last poll
+     */
+    private void refreshLineCount() {
+        if (errorIndex == null || !(getItems() instanceof LineList)) {
+            return;
+        }
+        LineList lines = (LineList) getItems();
+        int before = lines.size();
+        lines.grow(errorIndex.lines().lineCount());
+        if (lines.size() != before) {
+            refresh(); // errors of visible lines may have been indexed since they were drawn
+            if (currentLine >= before && currentLine < lines.size()) {
+                scrollToCurrent();
+            }
+        }
+        if (errorIndex.isComplete() && lines.size() == errorIndex.lines().lineCount()) {
+            poll.stop();
+        }
+    }
+
+    /**
+     * Scrolls so the current line is near the top, if it has been indexed yet
+     */
+    private void scrollToCurrent() {
+        if (currentLine >= 0 && currentLine < getItems().size()) {
+            scrollTo(Math.max(0, currentLine - 2));
+        }
+    }
+
+    /**
+     * Builds text nodes for a line, splitting it around its errors
+     * @param line Line number
+     * @return Text nodes of line
+     */
+    private List<Text> render(int line) {
+        List<Text> nodes = new ArrayList<>();
+        String text;
+        if (line == currentLine) {
+            text = currentText == null ? "" : currentText;
+            if (errorStart >= 0) {
+                addSpan(nodes, text, 0, errorStart, "line-text");
+                addSpan(nodes, text, errorStart, errorStart + errorLength, "current-error");
+                addSpan(nodes, text, errorStart + errorLength, text.length(), "line-text");
+            } else {
+                addSpan(nodes, text, 0, text.length(), "line-text");
+            }
+            return nodes;
+        }
+
+        text = lineText(line);
+        int pos = 0;
+        for (int i = errorIndex.firstOnOrAfter(line); i < errorIndex.size() && errorIndex.line(i) == line; i++) {
+            int start = Math.max(pos, errorIndex.spanStart(i));
+            int end = start + errorIndex.spanLength(i);
+            addSpan(nodes, text, pos, start, "line-text");
+            addSpan(nodes, text, start, end, "error-highlight");
+            pos = end;
+        }
+        addSpan(nodes, text, pos, text.length(), "line-text");
+        return nodes;
+    }
+
+    /**
+     * Adds text node for chars [from, to) of text, cut off at MAX_RENDERED_CHARS
+     */
+    private static void addSpan(List<Text> nodes, String text, int from, int to, String styleClass) {
+        int limit = Math.min(text.length(), MAX_RENDERED_CHARS);
+        from = Math.min(from, limit);
+        to = Math.min(to, limit);
+        if (from >= to) {
+            return;
+        }
+        Text node = new Text(text.substring(from, to));
+        node.getStyleClass().add(styleClass);
+        nodes.add(node);
+    }
+
+    /**
+     * Reads a line of file, from cache if shown recently
+     * @param line Line number
+     * @return Text of line, empty if it cannot be read
+     */
+    private String lineText(int line) {
+        String text = cache.get(line);
+        if (text == null) {
+            try {
+                text = errorIndex.lines().line(reader, line);
+            } catch (IOException e) {
+                e.printStackTrace();
+                text = "";
+            }
+            cache.put(line, text);
+        }
+        return text;
+    }
+}
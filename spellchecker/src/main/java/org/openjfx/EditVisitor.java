@@ -0,0 +1,16 @@
+package org.openjfx;
+
+/**
+ * Visitor for words reached by editing a word while walking a Trie
+ */
+@FunctionalInterface
+public interface EditVisitor {
+    /**
+     * Called for each way of editing the word into a word of the Trie, so a word can be visited more than once
+     * @param word Buffer holding the word, reused between calls so copy it to keep it
+     * @param length Number of letters of word in buffer
+     * @param edits Number of edits made to reach it this way
+     * @return True to continue, false to stop enumerating
+     */
+    boolean visit(char[] word, int length, int edits);
+}
@@ -0,0 +1,410 @@
+package org.openjfx;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openjfx.Document.ErrorType;
+
+/**
+ * Class for indexing every error of a document ahead of the user.
+ * A background pass runs the same rules as the document over the whole file and stores each error's byte offset,
+ * line number, token span and type in primitive arrays, so errors can be counted and jumped to in O(1).
+ * The index is a snapshot of the file as it was opened, edits made while checking are not reflected. When the
+ * dictionary or ignore list changes the pass starts over, and its errors replace the old ones once it finishes.
+ */
+public class ErrorIndex {
+    /**
+     * Error types by ordinal, for turning stored bytes back into types
+     */
+    private static final ErrorType[] TYPES = ErrorType.values();
+
+    /**
+     * File being indexed, and spell checker its words are checked with
+     */
+    private final Path path;
+    private final SpellChecker checker;
+
+    /**
+     * Byte offsets of the start of lines of file
+     */
+    private final LineIndex lines = new LineIndex();
+
+    /**
+     * Errors readers see, filled in by the first pass and replaced by each later one when it finishes
+     */
+    private volatile Errors errors = new Errors();
+
+    /**
+     * Bumped when the dictionary or ignore list changes, the pass starts over when it sees a new value
+     */
+    private volatile int generation;
+
+    /**
+     * Flags for whether whole file has been indexed, or indexing should stop
+     */
+    private volatile boolean complete;
+    private volatile boolean cancelled;
+
+    /**
+     * Thread running passes, null when none is
+     */
+    private Thread thread;
+
+    /**
+     * Reader for fetching lines around errors
+     */
+    private MappedTextReader reader;
+
+    /**
+     * Constructor, creates empty index of a file
+     * @param path File to be indexed
+     * @param checker Spell checker to check words with
+     */
+    ErrorIndex(Path path, SpellChecker checker) {
+        this.path = path;
+        this.checker = checker;
+    }
+
+    /**
+     * Starts indexing a file on a background thread
+     * @param file File to be indexed
+     * @param checker Spell checker to check words with
+     * @return Index, filled in as the background pass goes
+     */
+    public static ErrorIndex start(File file, SpellChecker checker) {
+        ErrorIndex index = new ErrorIndex(file.toPath(), checker);
+        index.startThread();
+        return index;
+    }
+
+    private synchronized void startThread() {
+        thread = new Thread(this::build, "error-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs rules over every word of file, recording each error found, until a pass ends with no change to the
+     * dictionary or ignore list since it started
+     */
+    private void build() {
+        LineChecker lineChecker = new LineChecker(checker);
+        // the first pass fills in the errors readers see as it goes, later ones replace them when they finish
+        Errors building = complete ? new Errors() : errors;
+        while (true) {
+            int seen = generation;
+            if (pass(lineChecker, building, seen)) {
+                errors = building;
+                complete = true;
+            }
+            synchronized (this) {
+                if (cancelled || generation == seen) {
+                    thread = null;
+                    return;
+                }
+            }
+            lineChecker.invalidate(); // verdicts are stale
+            building = new Errors();
+        }
+    }
+
+    /**
+     * Runs rules over every word of file once
+     * @return False if the dictionary or ignore list changed before the end of file
+     */
+    private boolean pass(LineChecker lineChecker, Errors building, int seen) {
+        try (MappedTextReader in = new MappedTextReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while (!cancelled && (line = in.readLine()) != null) {
+                if (generation != seen) {
+                    return false;
+                }
+                if (lineNumber == lines.lineCount()) {
+                    lines.add(in.lineStart());
+                }
+
+                TokenLine words = new TokenLine(line);
+                long offset = in.lineStart();
+                int charPos = 0;
+                for (int i = 0; i < words.size(); i++) {
+                    String word = words.get(i);
+                    if (LineChecker.isWord(word)) {
+                        ErrorType type = lineChecker.check(words, i);
+                        if (type != null) {
+                            building.add(offset, lineNumber, charPos, word.length(), type);
+                            building.occurrences.merge(word, 1, Integer::sum);
+                        }
+                    }
+                    charPos += word.length();
+                    offset += utf8Length(word);
+                }
+                lineNumber++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        return !cancelled && generation == seen;
+    }
+
+    /**
+     * Checks the file again, called when the dictionary or ignore list changes so words may no longer be errors.
+     * A pass under way starts over
+     */
+    public synchronized void invalidate() {
+        generation++;
+        if (thread == null && !cancelled) {
+            startThread();
+        }
+    }
+
+    /**
+     * Stops background pass, errors indexed so far are kept
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return True once the whole file has been indexed
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return Number of errors indexed so far
+     */
+    public int size() {
+        return errors.count;
+    }
+
+    /**
+     * @param type Type of error
+     * @return Number of errors of type indexed so far, all of them once complete
+     */
+    public int count(ErrorType type) {
+        return errors.typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Gets number of times a word is an error in the file, identical misspellings being one group
+     * @param word Word as it appears in the file
+     * @return Number of errors at that word indexed so far, all of them once complete
+     */
+    public int occurrences(String word) {
+        return errors.occurrences.getOrDefault(word, 0);
+    }
+
+    /**
+     * @return Index of line offsets of file
+     */
+    public LineIndex lines() {
+        return lines;
+    }
+
+    /**
+     * @param i Index of error
+     * @return Byte offset of error's word in file
+     */
+    public long offset(int i) {
+        return errors.at(i).offsets[i];
+    }
+
+    /**
+     * @param i Index of error
+     * @return Line number of error, starting at 0
+     */
+    public int line(int i) {
+        return errors.at(i).lineNumbers[i];
+    }
+
+    /**
+     * @param i Index of error
+     * @return Char offset of error's word in its line
+     */
+    public int spanStart(int i) {
+        return errors.at(i).spanStarts[i];
+    }
+
+    /**
+     * @param i Index of error
+     * @return Length of error's word in chars
+     */
+    public int spanLength(int i) {
+        return errors.at(i).spanLengths[i];
+    }
+
+    /**
+     * @param i Index of error
+     * @return Type of error
+     */
+    public ErrorType type(int i) {
+        return TYPES[errors.at(i).types[i]];
+    }
+
+    /**
+     * Finds first error on or after a line
+     * @param line Line number
+     * @return Index of error, size() if there is none indexed yet
+     */
+    public int firstOnOrAfter(int line) {
+        Errors errors = this.errors;
+        int n = errors.count;
+        int[] lineNumbers = errors.lineNumbers;
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lineNumbers[mid] < line) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Reads the word of an error
+     * @param i Index of error
+     * @return Word error was found at
+     * @throws IOException If file cannot be read
+     */
+    public synchronized String word(int i) throws IOException {
+        Errors errors = this.errors.at(i);
+        String text = lines.line(reader(), errors.lineNumbers[i]);
+        int start = Math.min(errors.spanStarts[i], text.length());
+        return text.substring(start, Math.min(start + errors.spanLengths[i], text.length()));
+    }
+
+    /**
+     * Reads lines around an error
+     * @param i Index of error
+     * @param radius Number of lines to read before and after error's line
+     * @return Lines from line(i) - radius to line(i) + radius, cut off at start and end of file
+     * @throws IOException If file cannot be read
+     */
+    public synchronized String[] context(int i, int radius) throws IOException {
+        int first = Math.max(0, line(i) - radius);
+        int last = Math.min(lines.lineCount() - 1, line(i) + radius);
+
+        String[] out = new String[last - first + 1];
+        lines.seek(reader(), first);
+        for (int l = 0; l < out.length; l++) {
+            String text = reader.readLine();
+            out[l] = text == null ? "" : text;
+        }
+        return out;
+    }
+
+    /**
+     * Closes reader used for fetching lines and stops background pass
+     */
+    public synchronized void close() {
+        cancel();
+        try {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return Reader for fetching lines, opened on first use
+     */
+    private MappedTextReader reader() throws IOException {
+        if (reader == null) {
+            reader = new MappedTextReader(path);
+        }
+        return reader;
+    }
+
+    /**
+     * Errors found by one pass, in primitive arrays
+     */
+    private static class Errors {
+        /**
+         * For each error: byte offset of word in file, line number, char offset and length of word in line and type
+         */
+        private long[] offsets = new long[256];
+        private int[] lineNumbers = new int[256];
+        private int[] spanStarts = new int[256];
+        private int[] spanLengths = new int[256];
+        private byte[] types = new byte[256];
+
+        /**
+         * Number of errors of each type, by ordinal
+         */
+        private final int[] typeCounts = new int[TYPES.length];
+
+        /**
+         * Number of errors at each word, read while the pass is still adding to it
+         */
+        private final ConcurrentHashMap<String, Integer> occurrences = new ConcurrentHashMap<>();
+
+        /**
+         * Number of errors indexed so far, written after the arrays so readers see filled entries
+         */
+        private volatile int count;
+
+        /**
+         * Appends an error, growing arrays as needed
+         */
+        private void add(long offset, int line, int spanStart, int spanLength, ErrorType type) {
+            int n = count;
+            if (n == offsets.length) {
+                offsets = Arrays.copyOf(offsets, n * 2);
+                lineNumbers = Arrays.copyOf(lineNumbers, n * 2);
+                spanStarts = Arrays.copyOf(spanStarts, n * 2);
+                spanLengths = Arrays.copyOf(spanLengths, n * 2);
+                types = Arrays.copyOf(types, n * 2);
+            }
+            offsets[n] = offset;
+            lineNumbers[n] = line;
+            spanStarts[n] = spanStart;
+            spanLengths[n] = spanLength;
+            types[n] = (byte) type.ordinal();
+            typeCounts[type.ordinal()]++;
+            count = n + 1;
+        }
+
+        /**
+         * @return These errors, after checking error i has been indexed
+         */
+        private Errors at(int i) {
+            if (i < 0 || i >= count) {
+                throw new IndexOutOfBoundsException("Error " + i + " of " + count);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * @return Number of bytes text takes up in UTF-8
+     */
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,130 @@
+package org.openjfx;
+
+import java.util.Arrays;
+
+/**
+ * Restricted Damerau distance where hitting a key next to the right one on a QWERTY keyboard costs half an edit.
+ * Costs are counted in half edits, so an insertion, deletion, transposition or substitution costs EDIT_COST and a
+ * slip onto a neighbouring key costs 1. Every edit still costs at least one, so the weighted distance is never below
+ * the plain one and anything that bounds plain distance from below bounds it too.
+ */
+public final class KeyboardDistance {
+    /**
+     * Cost of an edit, and of substituting a neighbouring key
+     */
+    public static final int EDIT_COST = 2;
+    public static final int NEAR_COST = 1;
+
+    /**
+     * Cost of substituting letter b for letter a at a * 26 + b
+     */
+    static final byte[] SUBSTITUTION = new byte[26 * 26];
+
+    static {
+        String[] rows = { "qwertyuiop", "asdfghjkl", "zxcvbnm" };
+        Arrays.fill(SUBSTITUTION, (byte) EDIT_COST);
+        for (int r = 0; r < rows.length; r++) {
+            for (int c = 0; c < rows[r].length(); c++) {
+                int key = rows[r].charAt(c) - 'a';
+                SUBSTITUTION[key * 26 + key] = 0;
+                if (c + 1 < rows[r].length()) {
+                    near(key, rows[r].charAt(c + 1) - 'a');
+                }
+                // each row sits half a key right of the one above, so touches the keys above it and above-right
+                if (r + 1 < rows.length) {
+                    for (int below = c - 1; below <= c; below++) {
+                        if (below >= 0 && below < rows[r + 1].length()) {
+                            near(key, rows[r + 1].charAt(below) - 'a');
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private KeyboardDistance() {
+    }
+
+    private static void near(int a, int b) {
+        SUBSTITUTION[a * 26 + b] = NEAR_COST;
+        SUBSTITUTION[b * 26 + a] = NEAR_COST;
+    }
+
+    /**
+     * @param a Letter typed
+     * @param b Letter meant
+     * @return Cost of substituting one for the other, 0 if they are equal
+     */
+    public static int substitution(char a, char b) {
+        int x = a - 'a';
+        int y = b - 'a';
+        if (x >= 0 && x < 26 && y >= 0 && y < 26) {
+            return SUBSTITUTION[x * 26 + y];
+        }
+        return a == b ? 0 : EDIT_COST;
+    }
+
+    /**
+     * @param s1 The first string
+     * @param s2 The second string
+     * @return Weighted distance between them in half edits
+     */
+    public static int distance(String s1, String s2) {
+        return distance(s1, s2.toCharArray(), s2.length(), Integer.MAX_VALUE / 2);
+    }
+
+    /**
+     * Bounded weighted distance. Only the band of cells within bound / EDIT_COST insertions or deletions of the
+     * diagonal can stay within bound, and the computation stops as soon as a whole row is over it.
+     * @param s1 The first string
+     * @param s2 Buffer holding the second string
+     * @param length Length of the second string
+     * @param bound Largest distance of interest
+     * @return Weighted distance in half edits, or bound + 1 if it is larger than bound
+     */
+    public static int distance(String s1, char[] s2, int length, int bound) {
+        int n = s1.length();
+        int band = bound / EDIT_COST;
+        if (Math.abs(n - length) > band) {
+            return bound + 1;
+        }
+        int over = bound + 1;
+        int[] prev2 = new int[length + 1];
+        int[] prev = new int[length + 1];
+        int[] curr = new int[length + 1];
+        for (int j = 0; j <= length; j++) {
+            prev[j] = j <= band ? j * EDIT_COST : over;
+        }
+        for (int i = 1; i <= n; i++) {
+            char a = s1.charAt(i - 1);
+            int from = Math.max(1, i - band);
+            int to = Math.min(length, i + band);
+            curr[0] = i <= band ? i * EDIT_COST : over;
+            if (from > 1) {
+                curr[from - 1] = over;
+            }
+            int best = curr[0];
+            for (int j = from; j <= to; j++) {
+                char b = s2[j - 1];
+                int cost = prev[j - 1] + substitution(a, b);
+                cost = Math.min(cost, Math.min(prev[j], curr[j - 1]) + EDIT_COST);
+                if (i > 1 && j > 1 && a != b && a == s2[j - 2] && s1.charAt(i - 2) == b) {
+                    cost = Math.min(cost, prev2[j - 2] + EDIT_COST);
+                }
+                curr[j] = Math.min(cost, over);
+                best = Math.min(best, curr[j]);
+            }
+            if (to < length) {
+                curr[to + 1] = over;
+            }
+            if (best > bound) {
+                return over;
+            }
+            int[] t = prev2;
+            prev2 = prev;
+            prev = curr;
+            curr = t;
+        }
+        return Math.min(prev[length], over);
+    }
+}
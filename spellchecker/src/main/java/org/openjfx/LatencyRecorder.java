@@ -0,0 +1,88 @@
+package org.openjfx;
+
+import java.util.Arrays;
+
+/**
+ * Class for recording latencies against a budget and reporting their percentiles.
+ * Only the most recent samples are kept, so the report follows how the app is doing now.
+ */
+public class LatencyRecorder {
+    /**
+     * Number of most recent samples kept
+     */
+    static final int CAPACITY = 1024;
+
+    /**
+     * Latency each sample should stay under, in nanoseconds
+     */
+    private final long budgetNanos;
+
+    /**
+     * Ring of most recent samples in nanoseconds
+     */
+    private final long[] samples = new long[CAPACITY];
+
+    /**
+     * Total number of samples recorded, and how many of them went over budget
+     */
+    private long count;
+    private long overBudget;
+
+    /**
+     * Constructor, sets budget
+     * @param budgetMillis Latency each sample should stay under, in milliseconds
+     */
+    public LatencyRecorder(long budgetMillis) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    /**
+     * Records a sample
+     * @param nanos Latency in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        samples[(int) (count % CAPACITY)] = nanos;
+        count++;
+        if (nanos > budgetNanos) {
+            overBudget++;
+        }
+    }
+
+    /**
+     * @return Total number of samples recorded
+     */
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * @return Number of samples that went over budget
+     */
+    public synchronized long overBudget() {
+        return overBudget;
+    }
+
+    /**
+     * Gets a percentile of the samples kept, by nearest rank
+     * @param p Percentile from 0 to 100
+     * @return Latency in milliseconds, 0 if nothing recorded
+     */
+    public synchronized double percentile(double p) {
+        int n = (int) Math.min(count, CAPACITY);
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100 * n);
+        return sorted[Math.max(0, Math.min(n - 1, rank - 1))] / 1_000_000.0;
+    }
+
+    /**
+     * @return Summary of p50 and p99 and samples over budget
+     */
+    public String report() {
+        return String.format("p50 %.1f ms, p99 %.1f ms, %d/%d over %d ms budget",
+                percentile(50), percentile(99), overBudget(), count(), budgetNanos / 1_000_000L);
+    }
+}
@@ -0,0 +1,72 @@
+package org.openjfx;
+
+/**
+ * Signature of a word packed into an int, the set of letters a-z it uses in bits 0-25 and its length in bits 26-31.
+ * An insertion or deletion adds or removes at most one letter from the set and a substitution at most two, so
+ * max(|length difference|, ceil(popcount(mask xor) / 2)) is a lower bound on edit distance. It rejects most of the
+ * dictionary with a couple of instructions per word, before any distance is computed.
+ */
+public final class LetterSignature {
+    /**
+     * Bits of letter set, and longest length stored
+     */
+    static final int LETTER_BITS = (1 << 26) - 1;
+    static final int MAX_LENGTH = 63;
+
+    private LetterSignature() {
+    }
+
+    /**
+     * @param word Word, letters other than a-z are left out of the set
+     * @return Signature of word
+     */
+    public static int of(String word) {
+        return of(word.toCharArray(), word.length());
+    }
+
+    /**
+     * @param word Buffer holding word, letters other than a-z are left out of the set
+     * @param length Length of word in buffer
+     * @return Signature of word
+     */
+    public static int of(char[] word, int length) {
+        int mask = 0;
+        for (int i = 0; i < length; i++) {
+            int c = Character.toLowerCase(word[i]) - 'a';
+            if (c >= 0 && c < 26) {
+                mask |= 1 << c;
+            }
+        }
+        return (Math.min(length, MAX_LENGTH) << 26) | mask;
+    }
+
+    /**
+     * @param a Signature of one word
+     * @param b Signature of other word
+     * @return Lower bound on edit distance between the words
+     */
+    public static int lowerBound(int a, int b) {
+        int lengths = Math.abs((a >>> 26) - (b >>> 26));
+        int letters = (Integer.bitCount((a ^ b) & LETTER_BITS) + 1) >>> 1;
+        return Math.max(lengths, letters);
+    }
+
+    /**
+     * Gets lower bounds of a word against many signatures, a branch-free loop over primitive arrays so it can be
+     * vectorized
+     * @param query Signature of word being checked
+     * @param signatures Signatures to compare against
+     * @param count Number of signatures to compare
+     * @param out Receives bound of each signature, at most MAX_LENGTH
+     */
+    public static void lowerBounds(int query, int[] signatures, int count, byte[] out) {
+        int queryLength = query >>> 26;
+        for (int i = 0; i < count; i++) {
+            int s = signatures[i];
+            int lengths = Math.abs(queryLength - (s >>> 26));
+            int letters = (Integer.bitCount((query ^ s) & LETTER_BITS) + 1) >>> 1;
+            out[i] = (byte) Math.max(lengths, letters);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.openjfx;
+
+import java.util.HashMap;
+
+import org.openjfx.Document.ErrorType;
+
+/**
+ * Class for applying the spell-checking rules to the tokens of a line.
+ * Shared by the document being checked and the background error index so both flag the same errors.
+ */
+class LineChecker {
+    /**
+     * Spell checker to be used for checking words
+     */
+    private final SpellChecker checker;
+
+    /**
+     * Spelling verdict of each raw token seen, so repeated words are only looked up once
+     */
+    private final HashMap<String, Boolean> verdictCache = new HashMap<>();
+
+    /**
+     * Constructor, sets spell checker
+     * @param checker Spell checker to be used for checking words
+     */
+    LineChecker(SpellChecker checker) {
+        this.checker = checker;
+    }
+
+    /**
+     * Checks if token is a word to be checked, empty tokens and spaces are skipped
+     * @param token Token to check
+     * @return True if token should be checked
+     */
+    static boolean isWord(String token) {
+        return !(token.equals("") || token.equals(" "));
+    }
+
+    /**
+     * Checks a word of a line against the double word, capitalization and spelling rules
+     * @param words Tokens of line
+     * @param idx Index of word to check
+     * @return Type of error found, null if word is fine
+     */
+    ErrorType check(TokenLine words, int idx) {
+        // Checking next words
+        if (idx + 2 < words.size() && words.get(idx).equals(words.get(idx + 2))) {
+            return ErrorType.DOUBLE_WORD;
+        }
+        // Prev words
+        if (idx - 2 >= 0 && words.get(idx).equals(words.get(idx - 2))) {
+            return ErrorType.DOUBLE_WORD;
+        }
+        // ** Play around with pos?**
+        // ex. .. sentence. secondz ... detects secondz as a cap error forcing user to correct
+        // if they manually correct and fail to capitialize this error triggers again
+        // if they "" and misspell the block below is triggered
+        if (idx - 2 >= 0 && hasEndPunct(words.get(idx - 2))) {  // Curr word not capped and prev word has punct
+
+            if (checker.isAcronym(checker.removeTags(words.get(idx)))) return null;    // if acronym ignore
+
+            if (!checker.checkCapitalization(checker.removeTags(words.get(idx)))) {
+                return ErrorType.CAPITALIZATION;
+            }
+        }
+        // Current word is cap but prev word has no punct
+        if (idx - 2 >= 0 && !words.get(idx - 2).equals(" ") && !hasEndPunct(words.get(idx - 2))){
+
+            if (checker.isAcronym(checker.removeTags(words.get(idx)))) return null;
+
+            if (checker.checkCapitalization(checker.removeTags(words.get(idx)))) {
+                return ErrorType.MISCAPITALIZATION;
+            }
+        }
+        String word = words.get(idx);
+        if (hasEndPunct(word)) {
+            word = word.substring(0, word.length() - 1);
+        }
+        if (!isValidWord(word)) {
+            return ErrorType.SPELLING; // error if word is not in dictionary
+        }
+        return null;
+    }
+
+    /**
+     * Checks if token is a valid word, remembering verdict
+     * @param token Token to check
+     * @return True if token is a valid word, else false
+     */
+    boolean isValidWord(String token) {
+        Boolean verdict = verdictCache.get(token);
+        if (verdict == null) {
+            verdict = checker.isValidWord(token);
+            verdictCache.put(token, verdict);
+        }
+        return verdict;
+    }
+
+    /**
+     * Forget cached verdicts, called when ignore list or dictionary change
+     */
+    void invalidate() {
+        verdictCache.clear();
+    }
+
+    /**
+     * Checks if word ends with punctuation
+     * @param word Word to check for end punctuation
+     * @return True if word ends with punctuation, else false
+     */
+    static boolean hasEndPunct(String word) {
+        String[] punctuationMarks = { ".", "!", "?" }; // **FIX* not checking commas
+        for (String punct : punctuationMarks) {
+            if (word.endsWith(punct))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+package org.openjfx;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Class for finding the byte offset of any line of a file.
+ * Only the offset of every STRIDE-th line is stored, lines in between are found by skipping forward,
+ * so the index stays small even for files with tens of millions of lines.
+ */
+public class LineIndex {
+    /**
+     * Number of lines between stored offsets
+     */
+    static final int STRIDE = 64;
+
+    /**
+     * Byte offsets of lines 0, STRIDE, 2 * STRIDE, ...
+     */
+    private long[] checkpoints = new long[1024];
+
+    /**
+     * Number of lines indexed so far
+     */
+    private volatile int lineCount;
+
+    /**
+     * Records start of the next line of file, lines must be added in order
+     * @param offset Byte offset of start of line
+     */
+    void add(long offset) {
+        int line = lineCount;
+        if (line % STRIDE == 0) {
+            int slot = line / STRIDE;
+            if (slot == checkpoints.length) {
+                checkpoints = Arrays.copyOf(checkpoints, slot * 2);
+            }
+            checkpoints[slot] = offset;
+        }
+        lineCount = line + 1;
+    }
+
+    /**
+     * @return Number of lines indexed so far
+     */
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Moves reader to the start of a line
+     * @param reader Reader of indexed file
+     * @param line Line number, starting at 0
+     * @throws IOException If file cannot be read
+     */
+    public void seek(MappedTextReader reader, int line) throws IOException {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " of " + lineCount);
+        }
+        reader.seek(checkpoints[line / STRIDE]);
+        for (int i = line % STRIDE; i > 0; i--) {
+            reader.skipLine();
+        }
+    }
+
+    /**
+     * Reads a line of the file
+     * @param reader Reader of indexed file
+     * @param line Line number, starting at 0
+     * @return Text of line
+     * @throws IOException If file cannot be read
+     */
+    public String line(MappedTextReader reader, int line) throws IOException {
+        seek(reader, line);
+        String text = reader.readLine();
+        return text == null ? "" : text;
+    }
+}
@@ -0,0 +1,196 @@
+package org.openjfx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Class for checking text as it is being typed.
+ * Text is split into paragraphs and the misspellings of each are kept between checks, so after an edit only the
+ * paragraphs that changed are checked again.
+ */
+public class LiveChecker {
+    /**
+     * Spell checker to be used for checking words
+     */
+    private final SpellChecker checker;
+
+    /**
+     * Paragraphs of text as of last check, and the [start, end) of each misspelling in them
+     */
+    private List<String> paragraphs = new ArrayList<>();
+    private List<int[]> spans = new ArrayList<>();
+
+    /**
+     * Number of paragraphs checked by last update
+     */
+    private int rechecked;
+
+    /**
+     * Verdicts of hyphenated words seen in the text, each part is looked up once and the verdict reused wherever the
+     * word comes up again
+     */
+    private final HashMap<String, Boolean> compounds = new HashMap<>();
+
+    /**
+     * Generation of the spell checker results were found under, they are forgotten once it changes
+     */
+    private int generation;
+
+    /**
+     * Constructor, sets spell checker
+     * @param checker Spell checker to be used for checking words
+     */
+    public LiveChecker(SpellChecker checker) {
+        this.checker = checker;
+        this.generation = checker.generation();
+    }
+
+    /**
+     * Checks new version of text, reusing results of paragraphs that didn't change
+     * @param text Whole text being edited
+     * @return Offsets in text of misspellings as [start0, end0, start1, end1, ...]
+     */
+    public synchronized int[] update(String text) {
+        int current = checker.generation();
+        if (current != generation) {
+            reset(); // added or ignored words make earlier verdicts stale, in unchanged paragraphs too
+            generation = current;
+        }
+        List<String> next = splitParagraphs(text);
+
+        // paragraphs before and after the edit are unchanged
+        int prefix = 0;
+        int maxCommon = Math.min(paragraphs.size(), next.size());
+        while (prefix < maxCommon && paragraphs.get(prefix).equals(next.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < maxCommon - prefix
+                && paragraphs.get(paragraphs.size() - 1 - suffix).equals(next.get(next.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        List<int[]> nextSpans = new ArrayList<>(next.size());
+        nextSpans.addAll(spans.subList(0, prefix));
+        for (int i = prefix; i < next.size() - suffix; i++) {
+            nextSpans.add(misspellings(next.get(i)));
+        }
+        nextSpans.addAll(spans.subList(spans.size() - suffix, spans.size()));
+
+        this.rechecked = next.size() - suffix - prefix;
+        this.paragraphs = next;
+        this.spans = nextSpans;
+        return toOffsets();
+    }
+
+    /**
+     * Forgets all results, done by update once the dictionary or ignore list changes
+     */
+    public synchronized void reset() {
+        paragraphs = new ArrayList<>();
+        spans = new ArrayList<>();
+        compounds.clear();
+    }
+
+    /**
+     * @return Number of paragraphs checked by last update
+     */
+    public synchronized int lastRechecked() {
+        return rechecked;
+    }
+
+    /**
+     * Finds misspelled words of a paragraph.
+     * A word is a run of letters, with hyphens and apostrophes allowed inside it, only the part before an
+     * apostrophe is checked. Runs containing digits are skipped
+     * @param paragraph Text of paragraph
+     * @return [start, end) of each misspelling in paragraph, flattened
+     */
+    int[] misspellings(String paragraph) {
+        int[] out = new int[8];
+        int n = 0;
+        int i = 0;
+        int length = paragraph.length();
+        while (i < length) {
+            if (!isWordChar(paragraph.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            boolean digits = false;
+            while (i < length && (isWordChar(paragraph.charAt(i))
+                    || (isJoiner(paragraph.charAt(i)) && i + 1 < length && isWordChar(paragraph.charAt(i + 1))))) {
+                digits |= Character.isDigit(paragraph.charAt(i));
+                i++;
+            }
+            if (digits) {
+                continue;
+            }
+
+            String word = paragraph.substring(start, i);
+            int apostrophe = 0;
+            while (apostrophe < word.length()
+                    && word.charAt(apostrophe) != '\'' && word.charAt(apostrophe) != '\u2019') {
+                apostrophe++;
+            }
+            String checked = word.substring(0, apostrophe);
+            boolean valid = checked.indexOf('-') >= 0
+                    ? compounds.computeIfAbsent(checked, checker::isValidWord)
+                    : checker.isValidWord(checked);
+            if (!valid) {
+                if (n + 2 > out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                out[n++] = start;
+                out[n++] = i;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Joins spans of all paragraphs into offsets in the whole text
+     */
+    private int[] toOffsets() {
+        int total = 0;
+        for (int[] s : spans) {
+            total += s.length;
+        }
+        int[] out = new int[total];
+        int n = 0;
+        int base = 0;
+        for (int p = 0; p < paragraphs.size(); p++) {
+            for (int offset : spans.get(p)) {
+                out[n++] = base + offset;
+            }
+            base += paragraphs.get(p).length() + 1; // paragraph and its '\n'
+        }
+        return out;
+    }
+
+    /**
+     * Splits text at '\n', keeping empty paragraphs
+     */
+    private static List<String> splitParagraphs(String text) {
+        List<String> out = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                out.add(text.substring(start, i));
+                start = i + 1;
+            }
+        }
+        out.add(text.substring(start));
+        return out;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isJoiner(char c) {
+        return c == '-' || c == '\'' || c == '\u2019';
+    }
+}
@@ -0,0 +1,255 @@
+package org.openjfx;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.skin.TextAreaSkin;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.shape.Line;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+/**
+ * Window for checking text as it is typed.
+ * Keystrokes are debounced, then the changed paragraphs are checked on a background thread and misspellings are
+ * underlined on an overlay above the text area. Time from keystroke to underline is recorded against a budget.
+ */
+public class LiveEditor {
+    /**
+     * Quiet time after a keystroke before text is checked
+     */
+    static final long DEBOUNCE_MS = 75;
+
+    /**
+     * Time from keystroke to underline each check should stay under
+     */
+    static final long LATENCY_BUDGET_MS = 150;
+
+    /**
+     * Window, text area being edited and overlay underlines are drawn on
+     */
+    private final Stage stage = new Stage();
+    private final TextArea textArea = new TextArea();
+    private final Pane overlay = new Pane();
+    private final Label statusLabel = new Label("Loading dictionary...");
+
+    /**
+     * Thread checks run on, in order
+     */
+    private final ExecutorService checkThread = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "live-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Waits for typing to pause before checking
+     */
+    private final PauseTransition debounce = new PauseTransition(Duration.millis(DEBOUNCE_MS));
+
+    /**
+     * Latency from keystroke to underline
+     */
+    private final LatencyRecorder latency = new LatencyRecorder(LATENCY_BUDGET_MS);
+
+    /**
+     * Checker of text, set once dictionary has loaded
+     */
+    private volatile LiveChecker liveChecker;
+
+    /**
+     * Dictionary loaded for this window when none was shared, closed when the window is hidden
+     */
+    private volatile Dictionary ownDictionary;
+
+    /**
+     * Version of text, bumped on every keystroke, and when its last keystroke happened
+     */
+    private long version;
+    private long keystrokeNanos;
+
+    /**
+     * Misspellings drawn for the current version, kept to redraw on scroll and resize
+     */
+    private int[] spans = new int[0];
+
+    /**
+     * Rechecks text once the shared spell checker accepts new words, from Add to Dictionary or Ignore All
+     */
+    private final Runnable onCheckerChange = () -> Platform.runLater(this::submitCheck);
+
+    /**
+     * Constructor, builds window
+     * @param owner Window live editor was opened from, its light or dark mode is used
+     * @param checker Spell checker of the owner window, null to load a dictionary for this window
+     */
+    public LiveEditor(Stage owner, SpellChecker checker) {
+        textArea.setWrapText(true);
+        textArea.getStyleClass().add("live-edit-field");
+        overlay.setMouseTransparent(true);
+        overlay.setManaged(false);
+
+        StackPane editor = new StackPane(textArea, overlay);
+        BorderPane root = new BorderPane(editor);
+        root.setBottom(statusLabel);
+        root.getStyleClass().addAll(owner.getScene().getRoot().getStyleClass());
+
+        Scene scene = new Scene(root, 600, 400);
+        scene.getStylesheets().addAll(owner.getScene().getStylesheets());
+        stage.setScene(scene);
+        stage.setTitle("Live Spell Check");
+        stage.initOwner(owner);
+        stage.setOnHidden(e -> {
+            if (checker != null) {
+                checker.removeChangeListener(onCheckerChange);
+            }
+            checkThread.shutdownNow();
+            closeOwnDictionary();
+        });
+        if (checker != null) {
+            checker.addChangeListener(onCheckerChange);
+        }
+
+        textArea.textProperty().addListener((observable, oldValue, newValue) -> {
+            version++;
+            keystrokeNanos = System.nanoTime();
+            debounce.playFromStart();
+        });
+        debounce.setOnFinished(e -> submitCheck());
+
+        // underlines follow the text when it moves
+        textArea.scrollTopProperty().addListener((observable, oldValue, newValue) -> drawUnderlines());
+        textArea.scrollLeftProperty().addListener((observable, oldValue, newValue) -> drawUnderlines());
+        textArea.widthProperty().addListener((observable, oldValue, newValue) -> drawUnderlines());
+        textArea.heightProperty().addListener((observable, oldValue, newValue) -> drawUnderlines());
+
+        checkThread.execute(() -> {
+            SpellChecker shared = checker;
+            if (shared == null) {
+                Config config = new Config();
+                ownDictionary = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH, config.UNIGRAM_PATH);
+                if (checkThread.isShutdown()) {
+                    closeOwnDictionary(); // hidden while loading
+                    return;
+                }
+                shared = new SpellChecker(ownDictionary);
+            }
+            liveChecker = new LiveChecker(shared);
+            Platform.runLater(() -> {
+                statusLabel.setText("Ready");
+                submitCheck();
+            });
+        });
+    }
+
+    /**
+     * Shows window
+     */
+    public void show() {
+        stage.show();
+    }
+
+    /**
+     * Closes user dictionary writer of the dictionary loaded for this window, if one was
+     */
+    private void closeOwnDictionary() {
+        Dictionary dictionary = ownDictionary;
+        if (dictionary != null) {
+            dictionary.handleBwClose(); // closing twice does nothing
+        }
+    }
+
+    /**
+     * Checks current text on the check thread and underlines its misspellings once done
+     */
+    private void submitCheck() {
+        LiveChecker checker = liveChecker;
+        if (checker == null || checkThread.isShutdown()) {
+            return; // checked once dictionary is loaded
+        }
+        String text = textArea.getText();
+        long checkedVersion = version;
+        long startNanos = keystrokeNanos;
+
+        checkThread.execute(() -> {
+            int[] found = checker.update(text);
+            int rechecked = checker.lastRechecked();
+            Platform.runLater(() -> {
+                if (checkedVersion != version) {
+                    return; // text changed since, a newer check is coming
+                }
+                spans = found;
+                drawUnderlines();
+                if (startNanos != 0) {
+                    latency.record(System.nanoTime() - startNanos);
+                    keystrokeNanos = 0; // a recheck without typing isn't timed again
+                }
+                statusLabel.setText((found.length / 2) + " misspelled, " + rechecked + " paragraph(s) checked | "
+                        + latency.report());
+            });
+        });
+    }
+
+    /**
+     * Draws an underline below each misspelling visible in the text area
+     */
+    private void drawUnderlines() {
+        overlay.getChildren().clear();
+        Node viewport = textArea.lookup(".viewport");
+        if (!(textArea.getSkin() instanceof TextAreaSkin) || viewport == null) {
+            return;
+        }
+        TextAreaSkin skin = (TextAreaSkin) textArea.getSkin();
+        Bounds visible = viewport.getLayoutBounds();
+        int length = textArea.getLength();
+
+        for (int s = 0; s + 1 < spans.length; s += 2) {
+            if (spans[s + 1] > length) {
+                break; // text changed under us, redrawn once rechecked
+            }
+            // one segment per visual row, words can wrap
+            Rectangle2D first = null;
+            Rectangle2D last = null;
+            for (int i = spans[s]; i < spans[s + 1]; i++) {
+                Rectangle2D bounds = skin.getCharacterBounds(i);
+                if (first != null && bounds.getMinY() != first.getMinY()) {
+                    addUnderline(viewport, visible, first, last);
+                    first = null;
+                }
+                if (first == null) {
+                    first = bounds;
+                }
+                last = bounds;
+            }
+            if (first != null) {
+                addUnderline(viewport, visible, first, last);
+            }
+        }
+    }
+
+    /**
+     * Adds underline from first to last character bounds, if it is in view
+     */
+    private void addUnderline(Node viewport, Bounds visible, Rectangle2D first, Rectangle2D last) {
+        double y = last.getMaxY();
+        if (y < 0 || y > visible.getHeight()) {
+            return;
+        }
+        Point2D start = overlay.sceneToLocal(viewport.localToScene(first.getMinX(), y));
+        Point2D end = overlay.sceneToLocal(viewport.localToScene(last.getMaxX(), y));
+        Line underline = new Line(start.getX(), start.getY(), end.getX(), end.getY());
+        underline.getStyleClass().add("live-underline");
+        overlay.getChildren().add(underline);
+    }
+}
@@ -2,6 +2,7 @@ package org.openjfx;
 
 // JavaFX imports
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -9,7 +10,9 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonBar.ButtonData;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
@@ -23,6 +26,7 @@ import javafx.scene.layout.VBox;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.FileChooser;
+import javafx.geometry.Side;
 import javafx.scene.control.ListView;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
@@ -79,31 +83,40 @@ public class Main extends Application {
     private Label errorTypeLabel;
     private TextField currentErrorField;
     private Button replaceButton, replaceAllButton, ignoreButton, ignoreAllButton, addToDictButton, deleteTextButton;
+    private HBox correctionButtonsGroup; // Disabled while an event is being applied
     ListView<String> suggestListView;
     ObservableList<String> currentSuggestions; // Suggested word items
 
     /**
-     * fileTextField: UI area displaying fileContents and manually editing
-     * fileContents: contents of document
+     * documentViewer: list displaying whole document, only visible lines are read
+     * fileContents: contents of current line of document
      * manualEditField: UI area to enter manual correction
      * saveManualChanges: button to save manual changes to error
      */
-    private TextArea fileTextField; // For displaying file text and manually editing
-    private String fileContents; // Contains contents of document and displays in fileTextField text area
+    private DocumentViewer documentViewer; // For displaying file text, current line and errors highlighted
+    private String fileContents; // Contains current line of document, shown in documentViewer
     private TextArea manualEditField; // Manual correction
+    private ContextMenu completionMenu; // Completions of word being typed in manual correction
     private Button saveManualChanges;
+    private HBox manualCorrectionGroup; // Disabled while an event is being applied
 
     /**
      * progressLabel: displays progress after spellchecking a line
      */
     Label progressLabel;
 
+    /**
+     * busyIndicator: shown while the document is working in the background
+     */
+    private ProgressIndicator busyIndicator;
+
     /**
      * document: document that's being spellchecked
      * dictionary: user and stock dictionaries
      * spellchecker: backend spellchecker handling spell checking
+     * session: runs document work off the UI thread, document is only touched there
      */
-    private Document document;
+    private DocumentSession session;
     private Dictionary dictionary;
     private SpellChecker spellChecker;
 
@@ -262,8 +275,13 @@ public class Main extends Application {
             resetTextSizeMenuItem.setDisable(true);
         });
 
+        // Live checking window, text is checked as it is typed
+        MenuItem liveEditorMenuItem = new MenuItem("Live Spell Check");
+        // shares the dictionary of the document being checked, once loaded
+        liveEditorMenuItem.setOnAction(e -> new LiveEditor(primaryStage, spellChecker).show());
+
         // Add menu items to the "View" menu
-        viewMenu.getItems().addAll(increaseTextSizeMenuItem, resetTextSizeMenuItem);
+        viewMenu.getItems().addAll(increaseTextSizeMenuItem, resetTextSizeMenuItem, liveEditorMenuItem);
         // Add the "File" and "View" menus to the menu bar
         menuBar.getMenus().addAll(fileMenu, viewMenu, helpMenu);
         // Add help menu item
@@ -393,7 +411,7 @@ public class Main extends Application {
 
         Label correctionLabel = new Label("Correction options:");
         correctionLabel.setId("label-correction-options");
-        HBox correctionButtonsGroup = new HBox(); // (replace, ignore) buttons
+        correctionButtonsGroup = new HBox(); // (replace, ignore) buttons
         correctionButtonsGroup.getStyleClass().add("correction-button-group");
 
         // "Replace" and "Ignore" button groups
@@ -444,7 +462,7 @@ public class Main extends Application {
 
     /**
      * File contents and manual corrections container
-     * items: fileTextField, manualEditField, saveManualChanges button
+     * items: documentViewer, manualEditField, saveManualChanges button
      */
     private void createfileContentsContainer() {
         Label titleLabel = new Label("File contents:");
@@ -454,13 +472,11 @@ public class Main extends Application {
         fileContentsContainer.getStyleClass().add("file-contents-container");
         fileContentsContainer.setVisible(false);
 
-        fileTextField = new TextArea();
-        fileTextField.getStyleClass().add("file-text-field");
-        fileTextField.setMinWidth(300);
-        fileTextField.setWrapText(true);
-        fileTextField.setEditable(false);
+        documentViewer = new DocumentViewer();
+        documentViewer.getStyleClass().add("file-text-field");
+        documentViewer.setMinWidth(300);
 
-        HBox manualCorrectionGroup = new HBox();
+        manualCorrectionGroup = new HBox();
         manualCorrectionGroup.getStyleClass().add("manual-correction-group");
         Label manualCorrGroupLabel = new Label("Manually correct:");
         manualCorrGroupLabel.setId("label-manual-correction-group");
@@ -480,11 +496,13 @@ public class Main extends Application {
         saveManualChanges.setDisable(true); // Enable button when text in manual edit field
         manualEditField.textProperty().addListener((observable, oldValue, newValue) -> {
             saveManualChanges.setDisable(newValue.trim().isEmpty());
+            showCompletions(newValue);
         });
+        completionMenu = new ContextMenu();
         saveManualChanges.setOnAction(e -> handleManualEdit(manualEditField.getText()));
 
         manualCorrectionGroup.getChildren().addAll(manualCorrGroupLabel, manualEditField, saveManualChanges);
-        fileContentsContainer.getChildren().addAll(titleLabel, fileTextField, manualCorrectionGroup);
+        fileContentsContainer.getChildren().addAll(titleLabel, documentViewer, manualCorrectionGroup);
 
         root.heightProperty().addListener((obs, oldVal, newVal) -> {
             AnchorPane.setTopAnchor(fileContentsContainer, (root.getHeight() / 2));
@@ -495,6 +513,47 @@ public class Main extends Application {
         root.getChildren().add(fileContentsContainer);
     }
 
+    /**
+     * Offers completions of the last word typed in the manual correction field
+     * Picking one replaces the partial word, keeping a capital first letter
+     *
+     * @param text text of manual correction field
+     */
+    private void showCompletions(String text) {
+        int start = text.length();
+        while (start > 0 && Character.isLetter(text.charAt(start - 1))) {
+            start--;
+        }
+        String partial = text.substring(start);
+        if (dictionary == null || partial.isEmpty() || !manualEditField.isFocused()) {
+            completionMenu.hide();
+            return;
+        }
+
+        completionMenu.getItems().clear();
+        String before = text.substring(0, start);
+        for (String completion : dictionary.complete(partial, 8)) {
+            if (completion.length() == partial.length()) {
+                continue; // already typed in full
+            }
+            String shown = Character.isUpperCase(partial.charAt(0))
+                    ? Character.toUpperCase(completion.charAt(0)) + completion.substring(1)
+                    : completion;
+            MenuItem item = new MenuItem(shown);
+            item.setOnAction(e -> {
+                manualEditField.setText(before + shown);
+                manualEditField.positionCaret(manualEditField.getLength());
+            });
+            completionMenu.getItems().add(item);
+        }
+
+        if (completionMenu.getItems().isEmpty()) {
+            completionMenu.hide();
+        } else if (!completionMenu.isShowing()) {
+            completionMenu.show(manualEditField, Side.BOTTOM, 0, 0);
+        }
+    }
+
     /**
      * Footer area, incl. progress, stats, and light-mode radio buttons
      * items: progressLabel, statsLabel,lightModeButton and darkModeButton radio
@@ -507,6 +566,11 @@ public class Main extends Application {
         progressLabel = new Label("Progress:");
         progressLabel.setId("label-progress");
 
+        busyIndicator = new ProgressIndicator();
+        busyIndicator.setPrefSize(16, 16);
+        busyIndicator.setVisible(false);
+        HBox progressBox = new HBox(5, progressLabel, busyIndicator);
+
         Label statsLabel = new Label("Statistics");
         statsLabel.setId("label-statistics");
 
@@ -540,8 +604,8 @@ public class Main extends Application {
         toggleGroupBox.getChildren().addAll(lightModeButton, darkModeButton);
 
         // Set anchors for the Progress and Stats label and toggleGroupBox
-        AnchorPane.setLeftAnchor(progressLabel, 5.0);
-        AnchorPane.setTopAnchor(progressLabel, 5.0);
+        AnchorPane.setLeftAnchor(progressBox, 5.0);
+        AnchorPane.setTopAnchor(progressBox, 5.0);
         AnchorPane.setRightAnchor(toggleGroupBox, 5.0);
         AnchorPane.setTopAnchor(toggleGroupBox, 5.0);
         // Get root size and place stats label in middle
@@ -553,7 +617,7 @@ public class Main extends Application {
         statsLabel.setOnMouseEntered(e -> statsTooltip.setText(getStatisticsAsString()));
         statsLabel.setTooltip(statsTooltip);
 
-        footerContainer.getChildren().addAll(progressLabel, statsLabel, toggleGroupBox);
+        footerContainer.getChildren().addAll(progressBox, statsLabel, toggleGroupBox);
         AnchorPane.setBottomAnchor(footerContainer, 0.0);
         AnchorPane.setLeftAnchor(footerContainer, 0.0);
         AnchorPane.setRightAnchor(footerContainer, 0.0);
@@ -616,7 +680,7 @@ public class Main extends Application {
 
             if (!browseButton.isDisabled() && filePathField.getText().equals("")) { // just close if spell checking
                                                                                     // hasn't started
-                primaryStage.close();
+                closeWindow();
 
             }
             // Spellchecking has started
@@ -636,15 +700,26 @@ public class Main extends Application {
      * Enables/disables buttons, and updatesDisplays
      */
     private void startSpellCheck() {
-        try {
+        session = new DocumentSession();
+        session.setOnSnapshot(this::updateDisplays);
+        session.setOnSuggestions(this::showSuggestions);
+        busyIndicator.visibleProperty().bind(session.runningProperty());
+        // Actions are on the error shown, so wait until the last one has been applied and the next error is shown
+        correctionButtonsGroup.disableProperty().bind(session.applyingProperty());
+        manualCorrectionGroup.disableProperty().bind(session.applyingProperty());
+
+        // Loading dictionaries and opening document happen on the session thread
+        File fileToCheck = selectedFileToCheck;
+        session.open(() -> {
             Config config = new Config();
-            dictionary = new Dictionary(config.STD_DICTIONARY_PATH,config.USER_DICTIONARY_PATH);
-            spellChecker = new SpellChecker(dictionary);
-            this.document = new Document(selectedFileToCheck, spellChecker, config);
-            document.startSpellCheck();
-        } catch (Exception e) {
-            // TODO: handle exception
-        }
+            Dictionary dictionary = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH, config.UNIGRAM_PATH);
+            SpellChecker checker = new SpellChecker(dictionary);
+            Platform.runLater(() -> {
+                this.dictionary = dictionary;
+                this.spellChecker = checker;
+            });
+            return new Document(fileToCheck, checker, config);
+        });
 
         // Disable fieldpath form, browse button, and start button
         // Show file contents and spelling options
@@ -655,24 +730,32 @@ public class Main extends Application {
         fileContentsContainer.setVisible(true);
         spellCheckerContainer.setVisible(true);
 
-        // Show initial context, error, and suggestions
-        updateDisplays();
+        // Initial context, error, and suggestions are shown once the session posts them
     }
 
     /**
      * Gets new contents, error, suggested words, progress and stats
      * Resets buttons
-     */
-    private void updateDisplays() {
-        fileContents = document.currentContext;
-        fileTextField.setText(fileContents);
-        if (document.currentError != null) {
-            currSpellingError = document.currentError.toString().substring("java.lang.Error: ".length());
+     * @param snapshot State of document after last event
+     */
+    private void updateDisplays(DocumentSnapshot snapshot) {
+        fileContents = snapshot.context;
+        if (!documentViewer.isOpen()) {
+            try {
+                documentViewer.open(selectedFileToCheck.toPath(), snapshot.errorIndex);
+            } catch (java.io.IOException e) {
+                e.printStackTrace();
+            }
+        }
+        documentViewer.showCurrent(snapshot.lineNumber, fileContents,
+                snapshot.errorStart, snapshot.isComplete() ? 0 : snapshot.errorWord.length());
+        if (!snapshot.isComplete()) {
+            currSpellingError = snapshot.errorWord;
             currentErrorField.setText(currSpellingError);
         }
-        if (document.currentError == null) { // If no errors remain, spellchecking is complete
+        if (snapshot.isComplete()) { // If no errors remain, spellchecking is complete
             spellCheckingComplete = true;
-            progressLabel.setText("Progress: " + document.progress + "%");
+            progressLabel.setText("Progress: " + snapshot.progress + "%");
             handleCheckingComplete();
         }
 
@@ -684,16 +767,21 @@ public class Main extends Application {
         // }
 
         // Update statistics, add errors
-        if (document.currentErrorType != null) errorTypeLabel.setText(document.currentErrorType.toString());
-        progressLabel.setText("Progress: " + document.progress + "%");
-        spellingStatistics.put("word count", document.wordCount);
-        spellingStatistics.put("line count", document.lineCount);
-        spellingStatistics.put("char count", document.charCount);
-        // Get error counts
-        spellingStatistics.put("spelling errors", document.getErrorCounts("spelling-errors"));
-        spellingStatistics.put("double word errors", document.getErrorCounts("double-words"));
-        spellingStatistics.put("capitalization errors", document.getErrorCounts("cap-errors"));
-        spellingStatistics.put("miscapitalization errors", document.getErrorCounts("miscap-errors"));
+        if (snapshot.errorType != null) {
+            // Show how often this misspelling occurs in the whole document
+            int occurrences = snapshot.occurrences;
+            errorTypeLabel.setText(snapshot.errorType + (occurrences > 1 ? " (x" + occurrences + ")" : ""));
+        }
+        progressLabel.setText("Progress: " + snapshot.progress + "%");
+        spellingStatistics.put("word count", snapshot.wordCount);
+        spellingStatistics.put("line count", snapshot.lineCount);
+        spellingStatistics.put("char count", snapshot.charCount);
+        // Get error counts, totals of the whole file once the error index is complete
+        spellingStatistics.put("spelling errors", snapshot.spellingErrors);
+        spellingStatistics.put("double word errors", snapshot.doubleWordErrors);
+        spellingStatistics.put("capitalization errors", snapshot.capErrors);
+        spellingStatistics.put("miscapitalization errors", snapshot.miscapErrors);
+        spellingStatistics.put("errors in file", snapshot.errorsInFile); // still counting until index is complete
         
 
         // Refresh and enable buttons
@@ -702,10 +790,18 @@ public class Main extends Application {
         replaceAllButton.setDisable(true);
         manualEditField.clear();
 
-        // Get suggestions
+        // Get suggestions, computed after the snapshot is posted unless already known
+        showSuggestions(snapshot.getSuggestions());
+    }
+
+    /**
+     * Shows suggested words for current error
+     * @param suggestions Suggested words, null if not known yet
+     */
+    private void showSuggestions(String[] suggestions) {
         currentSuggestions.clear();
-        if (document.currentSuggestions != null)
-            currentSuggestions.addAll(document.currentSuggestions);
+        if (suggestions != null)
+            currentSuggestions.addAll(suggestions);
     }
 
     /**
@@ -767,24 +863,30 @@ public class Main extends Application {
                     return;
                 }
 
-                if (exitEvent.equals("premature-exit")) {
-                    document.handleEvent("premature-exit");
-                }
-
                 String savePath = file.getAbsolutePath();
 
-                if (document.handleEvent("exit:" + savePath)) {
-                    primaryStage.close();
-
+                // Close window once document has been written on the session thread
+                Runnable exit = () -> session.submit("exit:" + savePath, this::closeWindow);
+                if (exitEvent.equals("premature-exit")) {
+                    session.submit("premature-exit", exit);
                 } else {
-                    // ???
+                    exit.run();
                 }
             } else if (response == buttonTypeNo) {
                 exitWithoutSavePrompt();
             }
         });
 
-        dictionary.handleBwClose(); // Will always close regardless of branch
+        if (dictionary != null)
+            dictionary.handleBwClose(); // Will always close regardless of branch
+    }
+
+    /**
+     * Closes document viewer's reader of the file, then the window
+     */
+    private void closeWindow() {
+        documentViewer.close();
+        primaryStage.close();
     }
 
     /**
@@ -804,9 +906,7 @@ public class Main extends Application {
         alert.showAndWait().ifPresent(response -> {
             if (response == buttonTypeYes) {
             
-                if (document.handleEvent("destroy-file")) {
-                    primaryStage.close();
-                }
+                session.submit("destroy-file", this::closeWindow);
                 // if it fails destorying file??
             } else {
                 return;
@@ -820,9 +920,7 @@ public class Main extends Application {
      * Updates displays after.
      */
     private void handleReplace() {
-        if (document.handleEvent("replace:" + selectedSuggWord)) {
-            updateDisplays();
-        }
+        session.submit("replace:" + selectedSuggWord); // displays are updated once applied
     }
 
     /**
@@ -831,9 +929,7 @@ public class Main extends Application {
      * occurences of the same word. Updates displays after.
      */
     private void handleReplaceAll() {
-        if (document.handleEvent("replace-all:" + selectedSuggWord)) {
-            updateDisplays();
-        }
+        session.submit("replace-all:" + selectedSuggWord); // displays are updated once applied
     }
 
     /**
@@ -842,9 +938,7 @@ public class Main extends Application {
      * displays after.
      */
     private void handleIgnore() {
-        if (document.handleEvent("ignore")) {
-            updateDisplays();
-        }
+        session.submit("ignore"); // displays are updated once applied
         // ??? what if document fails?
     }
 
@@ -854,9 +948,7 @@ public class Main extends Application {
      * error. Updates displays after.
      */
     private void handleIgnoreAll() {
-        if (document.handleEvent("ignore-all")) {
-            updateDisplays();
-        }
+        session.submit("ignore-all"); // displays are updated once applied
     }
 
     /**
@@ -865,9 +957,7 @@ public class Main extends Application {
      * after.
      */
     private void handleDeleteError() {
-        if (document.handleEvent("delete")) {
-            updateDisplays();
-        }
+        session.submit("delete"); // displays are updated once applied
     }
 
     /**
@@ -878,9 +968,7 @@ public class Main extends Application {
     private void handleAddToDict() {
         System.out.println(currSpellingError);
         // String strippedError = currSpellingError.substring("java.lang.Error: ".length());
-        if (document.handleEvent("add-to-dict")) {
-            updateDisplays();
-        }
+        session.submit("add-to-dict"); // displays are updated once applied
     }
 
     /**
@@ -889,9 +977,7 @@ public class Main extends Application {
      * displays after.
      */
     private void handleManualEdit(String manualCorrection) {
-        if (document.handleEvent("manual-edit:" + manualCorrection)) {
-            updateDisplays();
-        }
+        session.submit("manual-edit:" + manualCorrection); // displays are updated once applied
     }
 
     public static void main(String[] args) {
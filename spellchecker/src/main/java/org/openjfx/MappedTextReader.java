@@ -0,0 +1,260 @@
+package org.openjfx;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class for reading a text file line by line through memory-mapped windows.
+ * Lines are decoded as UTF-8 into a reusable char buffer and the exact byte offset of every line is tracked.
+ */
+public class MappedTextReader implements Closeable {
+    /**
+     * Default size of a mapped window, files larger than this are mapped piece by piece
+     */
+    static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    /**
+     * Largest window that can be mapped at once
+     */
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Channel of the file being read
+     */
+    private final FileChannel channel;
+
+    /**
+     * Total size of the file in bytes
+     */
+    private final long size;
+
+    /**
+     * Preferred size of a mapped window
+     */
+    private final int windowSize;
+
+    /**
+     * Decoder for turning line bytes into chars
+     */
+    private final CharsetDecoder decoder;
+
+    /**
+     * Currently mapped window of the file and its offset in the file
+     */
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Reusable buffer lines are decoded into
+     */
+    private CharBuffer chars;
+
+    /**
+     * Byte offset of the next line to be read
+     */
+    private long position;
+
+    /**
+     * Byte offsets of the start and end (excluding line terminator) of the last line read
+     */
+    private long lineStart;
+    private long lineEnd;
+
+    /**
+     * Constructor, opens file with the default window size
+     * @param path Path of file to be read
+     * @throws IOException If file cannot be opened
+     */
+    public MappedTextReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor, opens file with the given window size
+     * @param path Path of file to be read
+     * @param windowSize Preferred number of bytes to map at once
+     * @throws IOException If file cannot be opened
+     */
+    public MappedTextReader(Path path, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = Math.max(16, windowSize);
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(256);
+
+        // skip UTF-8 byte order mark so it doesn't show up in the first word
+        if (size >= 3) {
+            map(0, 3);
+            if ((window.get(0) & 0xFF) == 0xEF && (window.get(1) & 0xFF) == 0xBB && (window.get(2) & 0xFF) == 0xBF) {
+                position = 3;
+            }
+            window = null;
+        }
+    }
+
+    /**
+     * Reads next line from file, terminated by \n, \r\n or \r
+     * @return Next line without its terminator, null if EoF
+     * @throws IOException If file cannot be mapped
+     */
+    public String readLine() throws IOException {
+        return nextLine(true);
+    }
+
+    /**
+     * Skips over next line without decoding it
+     * @return True if a line was skipped, false if EoF
+     * @throws IOException If file cannot be mapped
+     */
+    public boolean skipLine() throws IOException {
+        return nextLine(false) != null;
+    }
+
+    /**
+     * Finds next line and advances past its terminator
+     * @param decode Whether line should be decoded, if not an empty String is returned
+     * @return Next line, null if EoF
+     */
+    private String nextLine(boolean decode) throws IOException {
+        if (position >= size) {
+            return null;
+        }
+
+        int length = windowSize;
+        while (true) {
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(position, length);
+            }
+
+            int from = (int) (position - windowStart);
+            int limit = window.limit();
+            boolean windowAtEof = windowStart + limit == size;
+
+            for (int i = from; i < limit; i++) {
+                byte b = window.get(i);
+                if (b != '\n' && b != '\r') {
+                    continue;
+                }
+
+                // \r\n split across windows, remap so both bytes are visible
+                if (b == '\r' && i + 1 == limit && !windowAtEof) {
+                    break;
+                }
+
+                int terminator = (b == '\r' && i + 1 < limit && window.get(i + 1) == '\n') ? 2 : 1;
+                return decodeLine(from, i, terminator, decode);
+            }
+
+            if (windowAtEof) {
+                return decodeLine(from, limit, 0, decode); // last line has no terminator
+            }
+
+            // line crosses end of window, map again from start of line (growing window if line is bigger)
+            if (from == 0) {
+                if (length >= MAX_WINDOW_SIZE) {
+                    throw new IOException("Line too long to map at offset " + position);
+                }
+                length = (int) Math.min((long) length * 2, MAX_WINDOW_SIZE);
+            }
+            map(position, length);
+        }
+    }
+
+    /**
+     * Moves reader to a byte offset, should be the start of a line
+     * @param offset Byte offset of next line to read
+     */
+    public void seek(long offset) {
+        this.position = Math.max(0, Math.min(offset, size));
+    }
+
+    /**
+     * @return Byte offset of the next line to be read
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * @return Total size of file in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Byte offset of the first byte of the last line read
+     */
+    public long lineStart() {
+        return lineStart;
+    }
+
+    /**
+     * @return Byte offset just past the last line read, excluding its terminator
+     */
+    public long lineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Closes the underlying channel, mapped windows are released by the garbage collector
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Maps window of file starting at offset
+     * @param offset Byte offset to start window at
+     * @param length Preferred number of bytes to map
+     */
+    private void map(long offset, int length) throws IOException {
+        long count = Math.min((long) length, size - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, count);
+        windowStart = offset;
+    }
+
+    /**
+     * Decodes bytes [from, to) of current window into a String and advances past line terminator
+     * @param from Start of line in window
+     * @param to End of line in window
+     * @param terminator Number of terminator bytes following line
+     * @param decode Whether line should be decoded
+     * @return Decoded line
+     */
+    private String decodeLine(int from, int to, int terminator, boolean decode) {
+        lineStart = windowStart + from;
+        lineEnd = windowStart + to;
+        position = lineEnd + terminator;
+        if (!decode) {
+            return "";
+        }
+
+        int length = to - from;
+        if (chars.capacity() < length) {
+            chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2)); // UTF-8 never decodes to more chars than bytes
+        }
+
+        ByteBuffer in = window.duplicate();
+        in.limit(to).position(from);
+        chars.clear();
+        decoder.reset();
+        decoder.decode(in, chars, true);
+        decoder.flush(chars);
+        chars.flip();
+        return chars.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package org.openjfx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Class for writing an edited copy of a file.
+ * Edits are recorded as byte-range patches against the original file, everything in between is
+ * copied over with FileChannel.transferTo so the cost of writing scales with the number of edits.
+ */
+public class PatchWriter {
+    /**
+     * A single replacement of bytes [start, end) of the original file
+     */
+    private static class Patch {
+        final long start;
+        final long end;
+        final byte[] bytes;
+
+        Patch(long start, long end, byte[] bytes) {
+            this.start = start;
+            this.end = end;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Original file patches are applied to
+     */
+    private final Path source;
+
+    /**
+     * Patches recorded so far
+     */
+    private final ArrayList<Patch> patches = new ArrayList<>();
+
+    /**
+     * Flag for whether patches are known to be in order
+     */
+    private boolean sorted = true;
+
+    /**
+     * Constructor, sets original file to be patched
+     * @param source Path of original file
+     */
+    public PatchWriter(Path source) {
+        this.source = source;
+    }
+
+    /**
+     * Records replacement of a byte range of the original file, a later patch of the same range replaces the earlier one
+     * @param start Byte offset of first byte to replace
+     * @param end Byte offset just past last byte to replace
+     * @param text Text to write in place of range, encoded as UTF-8
+     */
+    public void replace(long start, long end, String text) {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid patch range: " + start + "-" + end);
+        }
+
+        Patch patch = new Patch(start, end, text.getBytes(StandardCharsets.UTF_8));
+        int last = patches.size() - 1;
+        if (last >= 0) {
+            Patch prev = patches.get(last);
+            if (prev.start == start && prev.end == end) {
+                patches.set(last, patch);
+                return;
+            }
+            sorted &= prev.end <= start;
+        }
+        patches.add(patch);
+    }
+
+    /**
+     * @return Number of patches recorded
+     */
+    public int size() {
+        return patches.size();
+    }
+
+    /**
+     * Writes patched copy of first limit bytes of original file to destination, replacing any existing file
+     * @param dest Path to write to
+     * @param limit Number of bytes of original file to include
+     * @throws IOException If reading or writing fails
+     */
+    public void writeTo(Path dest, long limit) throws IOException {
+        if (!sorted) {
+            patches.sort(Comparator.comparingLong(p -> p.start));
+            sorted = true;
+        }
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(dest, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            limit = Math.min(limit, in.size());
+            long cursor = 0;
+
+            for (Patch patch : patches) {
+                if (patch.start >= limit) {
+                    break;
+                }
+                if (patch.start < cursor) {
+                    throw new IOException("Overlapping patches at offset " + patch.start);
+                }
+
+                transfer(in, cursor, patch.start - cursor, out);
+                ByteBuffer buffer = ByteBuffer.wrap(patch.bytes);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                cursor = Math.min(patch.end, limit);
+            }
+
+            transfer(in, cursor, limit - cursor, out);
+        }
+    }
+
+    /**
+     * Copies a range of the original file to the end of the output, transferTo may copy less than asked so loop
+     */
+    private void transfer(FileChannel in, long position, long count, FileChannel out) throws IOException {
+        while (count > 0) {
+            long copied = in.transferTo(position, count, out);
+            if (copied <= 0) {
+                throw new IOException("Unexpected end of file at offset " + position);
+            }
+            position += copied;
+            count -= copied;
+        }
+    }
+}
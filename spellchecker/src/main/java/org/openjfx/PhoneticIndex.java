@@ -0,0 +1,100 @@
+package org.openjfx;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Index from Double Metaphone key to the ids of words with that key.
+ * Looking up the keys of a misspelling finds words that sound like it, however many edits away they are, with a
+ * couple of hash lookups. Words are indexed under both their primary and alternate keys.
+ */
+public class PhoneticIndex {
+    /**
+     * Postings of each key, entry 0 is the number of ids that follow it in the order they were added
+     */
+    private final HashMap<String, int[]> postings = new HashMap<>();
+
+    /**
+     * Constructor, indexes every word of a store
+     * @param store Store to index
+     */
+    public PhoneticIndex(WordStore store) {
+        store.forEachCandidate(0, Integer.MAX_VALUE, (id, word, length) -> {
+            add(id, new String(word, 0, length));
+            return true;
+        });
+        trim();
+    }
+
+    /**
+     * Indexes a word
+     * @param id Id of word in store
+     * @param word Word to index
+     */
+    public synchronized void add(int id, String word) {
+        String[] keys = DoubleMetaphone.encode(word);
+        post(keys[0], id);
+        if (!keys[1].equals(keys[0])) {
+            post(keys[1], id);
+        }
+    }
+
+    /**
+     * Finds words that sound like a word
+     * @param word Word of any case
+     * @return Ids of words sharing its primary or alternate key, no id twice
+     */
+    public synchronized int[] lookup(String word) {
+        String[] keys = DoubleMetaphone.encode(word);
+        int[] first = ids(keys[0]);
+        if (keys[1].equals(keys[0])) {
+            return first;
+        }
+        int[] second = ids(keys[1]);
+        int[] out = Arrays.copyOf(first, first.length + second.length);
+        int n = first.length;
+        for (int id : second) {
+            // words with both keys are in both lists
+            if (Arrays.binarySearch(first, id) < 0) {
+                out[n++] = id;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * @return Number of distinct keys
+     */
+    public synchronized int keyCount() {
+        return postings.size();
+    }
+
+    private int[] ids(String key) {
+        int[] ids = postings.get(key);
+        if (ids == null || key.isEmpty()) {
+            return new int[0];
+        }
+        int[] out = Arrays.copyOfRange(ids, 1, 1 + ids[0]);
+        Arrays.sort(out);
+        return out;
+    }
+
+    private void post(String key, int id) {
+        int[] ids = postings.get(key);
+        if (ids == null) {
+            ids = new int[2];
+            postings.put(key, ids);
+        } else if (ids[0] + 1 == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            postings.put(key, ids);
+        }
+        ids[++ids[0]] = id;
+    }
+
+    /**
+     * Drops spare capacity left by building
+     */
+    private void trim() {
+        postings.replaceAll((key, ids) -> Arrays.copyOf(ids, 1 + ids[0]));
+    }
+}
@@ -0,0 +1,243 @@
+package org.openjfx;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class for applying replace-all rules to lines of a document.
+ * Rules are compiled into an Aho-Corasick automaton so every rule is applied in one pass over a line,
+ * however many rules have been added.
+ */
+public class ReplaceAllMatcher {
+    /**
+     * Words and their replacements, index in these lists is the rule number
+     */
+    private final ArrayList<String> patterns = new ArrayList<>();
+    private final ArrayList<String> replacements = new ArrayList<>();
+
+    /**
+     * Automaton states: edge labels and targets for each state, failure link, rule ending at state (-1 if none),
+     * next state on failure chain that ends a rule, and depth of state
+     */
+    private char[][] labels;
+    private int[][] targets;
+    private int[] fail;
+    private int[] rule;
+    private int[] outputLink;
+    private int[] depth;
+    private int stateCount;
+
+    /**
+     * Reusable buffer for longest match starting at each position of a line
+     */
+    private int[] matchAt = new int[0];
+
+    /**
+     * Constructor, creates matcher with no rules
+     */
+    public ReplaceAllMatcher() {
+        build();
+    }
+
+    /**
+     * Adds rule to replace all occurrences of a word, trailing punctuation is not part of the word
+     * @param word Word to be replaced
+     * @param replacement Word to replace it with
+     */
+    public void addRule(String word, String replacement) {
+        word = stripEndPunct(word);
+        if (word.isEmpty()) {
+            return;
+        }
+
+        int existing = patterns.indexOf(word);
+        if (existing >= 0) {
+            replacements.set(existing, replacement);
+        } else {
+            patterns.add(word);
+            replacements.add(replacement);
+        }
+        build();
+    }
+
+    /**
+     * @return True if no rules have been added
+     */
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    /**
+     * Applies all rules to a line, only whole words are replaced and punctuation after a word is kept
+     * @param line Line to apply rules to
+     * @return Line with all occurrences of rule words replaced
+     */
+    public String apply(String line) {
+        if (patterns.isEmpty() || line.isEmpty()) {
+            return line;
+        }
+
+        int n = line.length();
+        if (matchAt.length < n) {
+            matchAt = new int[Math.max(n, matchAt.length * 2)];
+        }
+        Arrays.fill(matchAt, 0, n, -1);
+
+        // find longest whole-word match starting at each position
+        boolean found = false;
+        int state = 0;
+        for (int i = 0; i < n; i++) {
+            state = next(state, line.charAt(i));
+            int s = rule[state] >= 0 ? state : outputLink[state];
+            for (; s > 0; s = outputLink[s]) {
+                int start = i + 1 - depth[s];
+                if (isBoundary(line, start - 1) && isBoundary(line, i + 1)
+                        && (matchAt[start] < 0 || depth[s] > patterns.get(matchAt[start]).length())) {
+                    matchAt[start] = rule[s];
+                    found = true;
+                }
+            }
+        }
+
+        if (!found) {
+            return line;
+        }
+
+        // take leftmost-longest matches, skipping over any that overlap
+        StringBuilder out = new StringBuilder(n);
+        for (int i = 0; i < n; ) {
+            int r = matchAt[i];
+            if (r >= 0) {
+                out.append(replacements.get(r));
+                i += patterns.get(r).length();
+            } else {
+                out.append(line.charAt(i++));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Follows edge for a char from a state, falling back along failure links
+     */
+    private int next(int state, char c) {
+        while (true) {
+            int target = edge(state, c);
+            if (target >= 0) {
+                return target;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * @return Target of edge labelled c from state, -1 if no such edge
+     */
+    private int edge(int state, char c) {
+        char[] stateLabels = labels[state];
+        for (int i = 0; i < stateLabels.length; i++) {
+            if (stateLabels[i] == c) {
+                return targets[state][i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rebuilds automaton from current rules
+     */
+    private void build() {
+        int maxStates = 1;
+        for (String pattern : patterns) {
+            maxStates += pattern.length();
+        }
+
+        labels = new char[maxStates][];
+        targets = new int[maxStates][];
+        fail = new int[maxStates];
+        rule = new int[maxStates];
+        outputLink = new int[maxStates];
+        depth = new int[maxStates];
+        Arrays.fill(rule, -1);
+        labels[0] = new char[0];
+        targets[0] = new int[0];
+        stateCount = 1;
+
+        // goto function, a trie of all rule words
+        for (int r = 0; r < patterns.size(); r++) {
+            String pattern = patterns.get(r);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int target = edge(state, pattern.charAt(i));
+                if (target < 0) {
+                    target = stateCount++;
+                    labels[target] = new char[0];
+                    targets[target] = new int[0];
+                    depth[target] = depth[state] + 1;
+                    addEdge(state, pattern.charAt(i), target);
+                }
+                state = target;
+            }
+            rule[state] = r;
+        }
+
+        // failure and output links, breadth first so shallower states are done first
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : targets[0]) {
+            fail[target] = 0;
+            outputLink[target] = 0;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int target = targets[state][i];
+                int f = next(fail[state], c);
+                fail[target] = f;
+                outputLink[target] = rule[f] >= 0 ? f : outputLink[f];
+                queue.add(target);
+            }
+        }
+    }
+
+    /**
+     * Adds edge labelled c from state to target
+     */
+    private void addEdge(int state, char c, int target) {
+        int size = labels[state].length;
+        labels[state] = Arrays.copyOf(labels[state], size + 1);
+        targets[state] = Arrays.copyOf(targets[state], size + 1);
+        labels[state][size] = c;
+        targets[state][size] = target;
+    }
+
+    /**
+     * Checks if position in line is outside of a word, so a match can end or start next to it
+     * @param line Line being matched
+     * @param i Position in line, may be -1 or line length
+     * @return True if there is no word char at position
+     */
+    private static boolean isBoundary(String line, int i) {
+        if (i < 0 || i >= line.length()) {
+            return true;
+        }
+        char c = line.charAt(i);
+        return !(Character.isLetterOrDigit(c) || c == '\'' || c == '-');
+    }
+
+    /**
+     * Removes punctuation from end of word
+     */
+    private static String stripEndPunct(String word) {
+        int end = word.length();
+        while (end > 0 && ".,!?;:".indexOf(word.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return word.substring(0, end);
+    }
+}
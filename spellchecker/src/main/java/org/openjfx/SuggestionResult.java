@@ -0,0 +1,33 @@
+package org.openjfx;
+
+/**
+ * Suggestions found for a word by a deadline, and whether the search for them finished in time
+ */
+public class SuggestionResult {
+    private final String[] suggestions;
+    private final boolean complete;
+
+    /**
+     * Constructor
+     * @param suggestions Suggestions found, best first and padded with nulls
+     * @param complete True if the search finished before the deadline
+     */
+    public SuggestionResult(String[] suggestions, boolean complete) {
+        this.suggestions = suggestions;
+        this.complete = complete;
+    }
+
+    /**
+     * @return Suggestions found, best first and padded with nulls
+     */
+    public String[] getSuggestions() {
+        return suggestions;
+    }
+
+    /**
+     * @return True if the search finished, so the suggestions are the same as with no deadline
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
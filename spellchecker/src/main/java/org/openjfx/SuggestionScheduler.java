@@ -0,0 +1,190 @@
+package org.openjfx;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class for computing suggestions ahead of the user.
+ * Suggestions for upcoming errors are computed on a background thread in order of how soon they will be shown,
+ * while suggestions for the error being shown are computed straight away on the caller's thread.
+ */
+public class SuggestionScheduler {
+    /**
+     * Number of upcoming errors to compute suggestions for
+     */
+    static final int PREFETCH_AHEAD = 5;
+
+    /**
+     * A suggestion computation for one word, ordered by priority (lower first) then by when it was scheduled
+     */
+    private class Job extends FutureTask<String[]> implements Comparable<Job> {
+        final int priority;
+        final long order;
+
+        Job(String word, int priority) {
+            super(() -> checker.getSuggestions(word));
+            this.priority = priority;
+            this.order = sequence.getAndIncrement();
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Spell checker suggestions come from
+     */
+    private final SpellChecker checker;
+
+    /**
+     * Single background thread running prefetch jobs, highest priority first
+     */
+    private final ThreadPoolExecutor worker;
+
+    /**
+     * Scheduled, running and finished jobs by word
+     */
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Counter for ordering jobs of equal priority
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Constructor, starts background thread
+     * @param checker Spell checker to get suggestions from
+     */
+    public SuggestionScheduler(SpellChecker checker) {
+        this.checker = checker;
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "suggestion-prefetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules suggestions for a word to be computed in the background, nothing happens if already scheduled
+     * @param word Word to compute suggestions for
+     * @param priority How soon the word will be needed, lower runs first
+     */
+    public void prefetch(String word, int priority) {
+        if (worker.isShutdown()) {
+            return;
+        }
+        Job job = new Job(word, priority);
+        if (jobs.putIfAbsent(word, job) == null) {
+            worker.execute(job);
+        }
+    }
+
+    /**
+     * Gets suggestions for a word, jumping ahead of any prefetch work
+     * @param word Word to get suggestions for
+     * @return Array of suggested words
+     * @throws InterruptedException If interrupted while waiting on a job already running in the background
+     */
+    public String[] get(String word) throws InterruptedException {
+        while (true) {
+            Job job = jobs.get(word);
+            if (job == null || job.isCancelled()) {
+                Job fresh = new Job(word, 0);
+                if (job == null ? jobs.putIfAbsent(word, fresh) != null : !jobs.replace(word, job, fresh)) {
+                    continue; // someone else scheduled it first
+                }
+                job = fresh;
+                job.run();
+            } else if (worker.getQueue().remove(job)) {
+                job.run(); // still waiting in queue, run it here instead
+            }
+
+            try {
+                return job.get();
+            } catch (CancellationException e) {
+                // invalidated while waiting, compute again
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Schedules suggestions for a word ahead of all prefetch work without waiting on them,
+     * a prefetch job already running is not interrupted
+     * @param word Word to get suggestions for
+     * @return Future of suggested words, can be waited on and cancelled
+     */
+    public Future<String[]> request(String word) {
+        while (true) {
+            Job job = jobs.get(word);
+            if (job != null && !job.isCancelled() && (job.priority == 0 || !worker.getQueue().remove(job))) {
+                return job; // already urgent, running or finished
+            }
+
+            Job urgent = new Job(word, 0);
+            if (job == null ? jobs.putIfAbsent(word, urgent) == null : jobs.replace(word, job, urgent)) {
+                if (job != null) {
+                    job.cancel(false);
+                }
+                worker.execute(urgent);
+                return urgent;
+            }
+        }
+    }
+
+    /**
+     * Checks if suggestions for a word are ready
+     * @param word Word to check
+     * @return True if suggestions have been computed
+     */
+    public boolean isReady(String word) {
+        Job job = jobs.get(word);
+        return job != null && job.isDone() && !job.isCancelled();
+    }
+
+    /**
+     * Cancels suggestions for a word if they haven't started being computed, used when an edit removes the word.
+     * Suggestions being computed or already computed are kept, the word may come up again
+     * @param word Word to cancel
+     */
+    public void cancel(String word) {
+        Job job = jobs.get(word);
+        if (job != null && worker.getQueue().remove(job)) {
+            jobs.remove(word, job);
+            job.cancel(false);
+        }
+    }
+
+    /**
+     * Cancels and forgets all suggestions, computed or not, used when the dictionary or ignore list changes
+     */
+    public void clear() {
+        for (String word : jobs.keySet()) {
+            Job job = jobs.remove(word);
+            if (job != null) {
+                worker.getQueue().remove(job);
+                job.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Cancels all work and stops background thread
+     */
+    public void shutdown() {
+        clear();
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,244 @@
+package org.openjfx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class for holding the tokens of a line being spell-checked.
+ * Tokens are kept in a gap buffer, edits happen around the word being checked and the gap follows it,
+ * so an edit only costs as much as the tokens it touches instead of re-splitting the whole line. The number of chars
+ * before the gap is kept as it moves, so the offset of the word being checked is known without adding up the line.
+ */
+public class TokenLine {
+    /**
+     * Tokens before the gap are [0, gapStart), tokens after it are [gapEnd, tokens.length)
+     */
+    private String[] tokens;
+    private int gapStart;
+    private int gapEnd;
+
+    /**
+     * Number of chars in tokens before the gap, and in all tokens
+     */
+    private int gapChars;
+    private int chars;
+
+    /**
+     * Number of edits made since line was split
+     */
+    private int version;
+
+    /**
+     * Text of line and the version it was built at, rebuilt from tokens when it is asked for after an edit
+     */
+    private String text;
+    private int textVersion;
+
+    /**
+     * Constructor, splits line into tokens
+     * @param text Line to split
+     */
+    public TokenLine(String text) {
+        String[] split = split(text);
+        // gap starts before the first token, where checking starts
+        this.tokens = new String[split.length + 8];
+        System.arraycopy(split, 0, tokens, 8, split.length);
+        this.gapStart = 0;
+        this.gapEnd = 8;
+        this.chars = text.length();
+        this.text = text;
+    }
+
+    /**
+     * Splits text into words and single whitespace chars, same as splitting on every whitespace boundary with a regex
+     * @param text Text to split
+     * @return Array of tokens, [""] for empty text
+     */
+    public static String[] split(String text) {
+        if (text.isEmpty()) {
+            return new String[] { "" };
+        }
+
+        ArrayList<String> out = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (isSpace(text.charAt(i))) {
+                if (start < i) {
+                    out.add(text.substring(start, i));
+                }
+                out.add(text.substring(i, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            out.add(text.substring(start));
+        }
+        return out.toArray(new String[0]);
+    }
+
+    /**
+     * Checks for the chars matched by \s in a regex
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return Number of tokens in line
+     */
+    public int size() {
+        return tokens.length - (gapEnd - gapStart);
+    }
+
+    /**
+     * @param i Index of token
+     * @return Token at index
+     */
+    public String get(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Token " + i + " of " + size());
+        }
+        return i < gapStart ? tokens[i] : tokens[i + (gapEnd - gapStart)];
+    }
+
+    /**
+     * Sets a single token
+     * @param i Index of token
+     * @param token New token
+     */
+    public void set(int i, String token) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Token " + i + " of " + size());
+        }
+        int at = i < gapStart ? i : i + (gapEnd - gapStart);
+        int grown = token.length() - tokens[at].length();
+        tokens[at] = token;
+        chars += grown;
+        if (i < gapStart) {
+            gapChars += grown;
+        }
+        version++;
+    }
+
+    /**
+     * Replaces count tokens starting at index with the tokens of some text
+     * @param i Index of first token to replace
+     * @param count Number of tokens to replace
+     * @param replacement Text to split into new tokens, nothing is inserted if empty
+     * @return Number of tokens inserted
+     */
+    public int replace(int i, int count, String replacement) {
+        if (i < 0 || count < 0 || i + count > size()) {
+            throw new IndexOutOfBoundsException("Tokens " + i + "-" + (i + count) + " of " + size());
+        }
+
+        String[] inserted = replacement.isEmpty() ? new String[0] : split(replacement);
+        moveGap(i);
+        for (int j = gapEnd; j < gapEnd + count; j++) {
+            chars -= tokens[j].length();
+            tokens[j] = null;
+        }
+        gapEnd += count;
+
+        if (gapEnd - gapStart < inserted.length) {
+            grow(inserted.length);
+        }
+        System.arraycopy(inserted, 0, tokens, gapStart, inserted.length);
+        gapStart += inserted.length;
+        gapChars += replacement.length();
+        chars += replacement.length();
+        version++;
+        return inserted.length;
+    }
+
+    /**
+     * Removes tokens
+     * @param i Index of first token to remove
+     * @param count Number of tokens to remove
+     */
+    public void remove(int i, int count) {
+        replace(i, count, "");
+    }
+
+    /**
+     * Gets char offset of a token, moving the gap to it so offsets of nearby tokens are cheap to get next
+     * @param i Index of token, size() for the end of line
+     * @return Sum of lengths of tokens before it
+     */
+    public int offsetOf(int i) {
+        if (i < 0 || i > size()) {
+            throw new IndexOutOfBoundsException("Token " + i + " of " + size());
+        }
+        moveGap(i);
+        return gapChars;
+    }
+
+    /**
+     * @return Number of chars in line
+     */
+    public int length() {
+        return chars;
+    }
+
+    /**
+     * @return Number of edits made since line was split, 0 if text is still the one it was split from
+     */
+    public int version() {
+        return version;
+    }
+
+    /**
+     * @return Text of line, built at most once per version
+     */
+    public String text() {
+        if (text == null || textVersion != version) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < gapStart; i++) {
+                sb.append(tokens[i]);
+            }
+            for (int i = gapEnd; i < tokens.length; i++) {
+                sb.append(tokens[i]);
+            }
+            text = sb.toString();
+            textVersion = version;
+        }
+        return text;
+    }
+
+    /**
+     * Moves gap so it starts at index, only tokens between old and new position are moved
+     */
+    private void moveGap(int i) {
+        if (i < gapStart) {
+            int n = gapStart - i;
+            for (int j = i; j < gapStart; j++) {
+                gapChars -= tokens[j].length();
+            }
+            System.arraycopy(tokens, i, tokens, gapEnd - n, n);
+            Arrays.fill(tokens, i, Math.min(gapStart, gapEnd - n), null);
+            gapStart = i;
+            gapEnd -= n;
+        } else if (i > gapStart) {
+            int n = i - gapStart;
+            for (int j = gapEnd; j < gapEnd + n; j++) {
+                gapChars += tokens[j].length();
+            }
+            System.arraycopy(tokens, gapEnd, tokens, gapStart, n);
+            Arrays.fill(tokens, Math.max(gapEnd, gapStart + n), gapEnd + n, null);
+            gapStart += n;
+            gapEnd += n;
+        }
+    }
+
+    /**
+     * Grows gap so at least needed tokens fit in it
+     */
+    private void grow(int needed) {
+        int after = tokens.length - gapEnd;
+        String[] grown = new String[Math.max(tokens.length * 2, size() + needed + 8)];
+        System.arraycopy(tokens, 0, grown, 0, gapStart);
+        System.arraycopy(tokens, gapEnd, grown, grown.length - after, after);
+        gapEnd = grown.length - after;
+        tokens = grown;
+    }
+}
@@ -1,13 +1,21 @@
 package org.openjfx;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
 
 /**
  * Interface for Trie class
  */
 interface ITrie {
     void add(String word);
+    void add(String word, int score);
     boolean search(String word);
+    boolean search(CharSequence text, int from, int to);
     ArrayList<String> getAllWords();
+    void forEachWord(String prefix, int minLength, int maxLength, WordVisitor visitor);
+    void forEachEdit(String word, int maxEdits, EditVisitor visitor);
+    int wordEnds(String text, int from, int[] ends);
+    ArrayList<String> complete(String prefix, int k);
 }
 
 /**
@@ -22,6 +30,14 @@ class TrieNode {
      * Holds if letter is end of a word or not
      */
     public boolean endWord;
+    /**
+     * Score of word ending here, higher ranks first in completions
+     */
+    public int score;
+    /**
+     * Highest score of any word ending at or below this node
+     */
+    public int best = Integer.MIN_VALUE;
 
     /**
      * Constructor, initializes array of 26 Trie Nodes and sets endWord to false
@@ -48,24 +64,76 @@ public class Trie implements ITrie{
     public Trie() { root = new TrieNode(); }
 
     /**
-     * Adds word into Trie structure
+     * Adds word into Trie structure, keeping its score if already added
      * @param word: Word to be added to Trie
      */
     public void add(String word) {
-        TrieNode node = root; // setting 'node' to root of trie
-        if(word.length() > longer) {
-            longer = word.length();
-        }
-        // loop through chars in word
-        for (char c : word.toCharArray()) {
-            int index = c - 'a'; // setting index to numeric value of char (a=0, b=1, etc.)
+        add(root, word, 0, 0, true);
+    }
+
+    /**
+     * Adds word into Trie structure with a score for ranking completions
+     * @param word: Word to be added to Trie
+     * @param score: Score of word, higher ranks first
+     */
+    public void add(String word, int score) {
+        add(root, word, 0, score, false);
+    }
+
+    /**
+     * Adds rest of word below node in one descent, updating best score of each node on the way back up
+     * @param i: Index of next char of word
+     * @param keep: True to keep score of word if already added
+     * @return Best score of node after adding
+     */
+    private int add(TrieNode node, String word, int i, int score, boolean keep) {
+        boolean lowered;
+        int best;
+        if (i == word.length()) {
+            if (word.length() > longer) {
+                longer = word.length();
+            }
+            if (keep && node.endWord) {
+                score = node.score;
+            }
+            lowered = node.endWord && score < node.score;
+            node.endWord = true; // end of word, set end to true
+            node.score = score;
+            best = score;
+        } else {
+            int index = word.charAt(i) - 'a'; // setting index to numeric value of char (a=0, b=1, etc.)
             // checking if letter exists already
             if (node.children[index] == null) {
                 node.children[index] = new TrieNode(); // letter not in list, add to children array
             }
-            node = node.children[index]; // letter in list, point to it
+            TrieNode child = node.children[index];
+            int before = child.best;
+            best = add(child, word, i + 1, score, keep);
+            lowered = best < before;
         }
-        node.endWord = true; // end of word, set end to true
+
+        if (!lowered) {
+            node.best = Math.max(node.best, best);
+            return node.best;
+        }
+        // a score went down, recompute best score of node from its own and its children's
+        best = node.endWord ? node.score : Integer.MIN_VALUE;
+        for (TrieNode child : node.children) {
+            if (child != null && child.best > best) {
+                best = child.best;
+            }
+        }
+        node.best = best;
+        return best;
+    }
+
+    /**
+     * @param word: Word in Trie
+     * @return Score of word, 0 if not in Trie
+     */
+    public int scoreOf(String word) {
+        TrieNode node = find(word);
+        return node != null && node.endWord ? node.score : 0;
     }
 
     /**
@@ -97,44 +165,259 @@ public class Trie implements ITrie{
     }
 
     /**
-     * Function called from outside, calls private getAllWords function
-     * @return True if successful, else returns false
+     * Searches for a word inside text, of any case, in one walk and without copying it out
+     * @param text: Text holding word
+     * @param from: Position of first letter of word
+     * @param to: Position after last letter of word
+     * @return True if word is found, else false
      */
-    public ArrayList<String> getAllWords() {
+    public boolean search(CharSequence text, int from, int to) {
+        TrieNode node = root;
+        for (int i = from; i < to; i++) {
+            int index = Character.toLowerCase(text.charAt(i)) - 'a';
+            if (index < 0 || index > 25 || node.children[index] == null) {
+                return false;
+            }
+            node = node.children[index];
+        }
+        return node.endWord;
+    }
+
+    /**
+     * Finds every word starting at a position of text in one walk down the Trie, no deeper than the longest word
+     * @param text: Text to look in, letters other than a-z end the walk
+     * @param from: Position words start at
+     * @param ends: Receives the position after each word found, shortest first, room for the longest word
+     * @return Number of words found
+     */
+    public int wordEnds(String text, int from, int[] ends) {
         TrieNode node = root;
-        char[] str = new char[longer];
+        int count = 0;
+        for (int i = from; i < text.length(); i++) {
+            int index = text.charAt(i) - 'a';
+            if (index < 0 || index > 25 || node.children[index] == null) {
+                break;
+            }
+            node = node.children[index];
+            if (node.endWord) {
+                ends[count++] = i + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds node at end of a prefix
+     * @param prefix: Letters to follow from root
+     * @return Node of last letter, null if prefix is not in Trie
+     */
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            int index = prefix.charAt(i) - 'a';
+            if (index < 0 || index > 25) {
+                return null;
+            }
+            node = node.children[index];
+        }
+        return node;
+    }
+
+    /**
+     * Entry of completion search, either a subtree still to be explored or a word found
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        final char[] letters;
+        final TrieNode node;
+        final boolean word;
+        final int priority;
+
+        Candidate(char[] letters, TrieNode node, boolean word) {
+            this.letters = letters;
+            this.node = node;
+            this.word = word;
+            this.priority = word ? node.score : node.best;
+        }
+
+        /**
+         * Higher priority first, then alphabetical, words before the subtree below them
+         */
+        @Override
+        public int compareTo(Candidate other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            int byText = Arrays.compare(letters, other.letters);
+            return byText != 0 ? byText : Boolean.compare(other.word, word);
+        }
+    }
+
+    /**
+     * Finds best completions of a prefix.
+     * Searches best first using the best score cached at each node, so only the paths to the k results and
+     * their siblings are visited, not the whole subtree
+     * @param prefix: Start of word, lowercase
+     * @param k: Number of completions wanted
+     * @return Up to k words starting with prefix, highest score first, ties alphabetical
+     */
+    public ArrayList<String> complete(String prefix, int k) {
         ArrayList<String> out = new ArrayList<>();
-        return getAllWords(node, str, 0, out);
+        TrieNode start = find(prefix);
+        if (start == null || k <= 0 || start.best == Integer.MIN_VALUE) {
+            return out;
+        }
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(prefix.toCharArray(), start, false));
+        while (!queue.isEmpty() && out.size() < k) {
+            Candidate c = queue.poll();
+            if (c.word) {
+                out.add(new String(c.letters));
+                continue;
+            }
+            if (c.node.endWord) {
+                queue.add(new Candidate(c.letters, c.node, true));
+            }
+            for (int i = 0; i < 26; i++) {
+                TrieNode child = c.node.children[i];
+                if (child != null) {
+                    char[] letters = Arrays.copyOf(c.letters, c.letters.length + 1);
+                    letters[c.letters.length] = (char) (i + 'a');
+                    queue.add(new Candidate(letters, child, false));
+                }
+            }
+        }
+        return out;
     }
 
     /**
-     * Private method called from public getAllWords method, returns array list of all words in Trie, works recursively
-     * @param root: root node of Trie
-     * @param str: char array for current word we are finding in Trie
-     * @param level: depth level of Trie
-     * @param out: Array list we will return containing all words in Trie
+     * Gets all words in Trie, in alphabetical order
      * @return Array list of all words
      */
-    private ArrayList<String> getAllWords(TrieNode root, char[] str, int level, ArrayList<String> out) {
-        // checking for end of string
-        if (root.endWord) {
-            for (int k = level; k < str.length; k++)
-                str[k] = ' '; // setting all other chars in array to blank
-            String tmp = new String(str);
-            out.add(tmp.replaceAll(" ", "")); // appending string to our AL
+    public ArrayList<String> getAllWords() {
+        ArrayList<String> out = new ArrayList<>();
+        forEachWord("", 0, Integer.MAX_VALUE, (word, length) -> out.add(new String(word, 0, length)));
+        return out;
+    }
+
+    /**
+     * Streams words starting with a prefix to a visitor, in alphabetical order.
+     * Walks the Trie iteratively with one reused buffer, subtrees deeper than maxLength are skipped and the walk
+     * ends as soon as the visitor returns false
+     * @param prefix: Start of words to visit, lowercase, "" for all words
+     * @param minLength: Shortest word to visit
+     * @param maxLength: Longest word to visit
+     * @param visitor: Called with each word
+     */
+    public void forEachWord(String prefix, int minLength, int maxLength, WordVisitor visitor) {
+        TrieNode start = find(prefix);
+        int limit = Math.min(maxLength, longer);
+        int base = prefix.length();
+        if (start == null || base > limit) {
+            return;
         }
-        int i;
-        for (i = 0; i < 26; i++) {
-            // recursively check for another child (more letters in word)
-            if (root.children[i] != null) {
-                str[level] = (char) (i + 'a');
-                getAllWords(root.children[i], str, level + 1, out);
+
+        char[] word = new char[limit];
+        prefix.getChars(0, base, word, 0);
+        TrieNode[] nodes = new TrieNode[limit + 1]; // node at each depth of current path
+        int[] next = new int[limit + 1]; // next child to try at each depth
+
+        int depth = base;
+        nodes[depth] = start;
+        if (start.endWord && depth >= minLength && !visitor.visit(word, depth)) {
+            return;
+        }
+        while (depth >= base) {
+            TrieNode node = nodes[depth];
+            int i = next[depth];
+            while (i < 26 && node.children[i] == null) {
+                i++;
+            }
+            if (i == 26 || depth == limit) {
+                depth--; // subtree done, back up
+                continue;
+            }
+            next[depth] = i + 1;
+            word[depth] = (char) (i + 'a');
+            depth++;
+            nodes[depth] = node.children[i];
+            next[depth] = 0;
+            if (nodes[depth].endWord && depth >= minLength && !visitor.visit(word, depth)) {
+                return;
             }
         }
-        return out;
     }
 
 
+    /**
+     * Streams words within maxEdits deletions, transpositions, replacements and insertions of word to a visitor.
+     * The edits are made while walking down the Trie, so an edit leading to a prefix no word starts with is dropped
+     * straight away and only words that exist are ever spelled out. Each letter of word is edited at most once, so
+     * the fewest edits a word is visited with is its distance from levenshteinEditDistance in SpellChecker
+     * @param word: Word to edit, letters other than a-z never match
+     * @param maxEdits: Most edits to make
+     * @param visitor: Called with each word and the edits made to reach it, possibly several times
+     */
+    public void forEachEdit(String word, int maxEdits, EditVisitor visitor) {
+        walkEdits(root, word, 0, new char[word.length() + maxEdits], 0, 0, maxEdits, visitor);
+    }
+
+    /**
+     * Continues an edit walk at node, having consumed i letters of word and spelled depth letters
+     * @return False once visitor asks to stop
+     */
+    private static boolean walkEdits(TrieNode node, String word, int i, char[] spelled, int depth, int edits,
+                                     int maxEdits, EditVisitor visitor) {
+        if (i == word.length() && node.endWord && !visitor.visit(spelled, depth, edits)) {
+            return false;
+        }
+        int letter = i < word.length() ? word.charAt(i) - 'a' : -1;
+        boolean matches = letter >= 0 && letter < 26;
+        if (matches && node.children[letter] != null) {
+            spelled[depth] = word.charAt(i);
+            if (!walkEdits(node.children[letter], word, i + 1, spelled, depth + 1, edits, maxEdits, visitor)) {
+                return false;
+            }
+        }
+        if (edits == maxEdits) {
+            return true;
+        }
+        // deletion
+        if (i < word.length() && !walkEdits(node, word, i + 1, spelled, depth, edits + 1, maxEdits, visitor)) {
+            return false;
+        }
+        // transposition of the next two letters
+        if (i + 1 < word.length() && word.charAt(i) != word.charAt(i + 1)) {
+            int second = word.charAt(i + 1) - 'a';
+            TrieNode swapped = matches && second >= 0 && second < 26 && node.children[second] != null
+                    ? node.children[second].children[letter] : null;
+            if (swapped != null) {
+                spelled[depth] = word.charAt(i + 1);
+                spelled[depth + 1] = word.charAt(i);
+                if (!walkEdits(swapped, word, i + 2, spelled, depth + 2, edits + 1, maxEdits, visitor)) {
+                    return false;
+                }
+            }
+        }
+        for (int c = 0; c < 26; c++) {
+            TrieNode child = node.children[c];
+            if (child == null) {
+                continue;
+            }
+            spelled[depth] = (char) (c + 'a');
+            // replacement
+            if (i < word.length() && c != letter
+                    && !walkEdits(child, word, i + 1, spelled, depth + 1, edits + 1, maxEdits, visitor)) {
+                return false;
+            }
+            // insertion
+            if (!walkEdits(child, word, i, spelled, depth + 1, edits + 1, maxEdits, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Method for testing Trie methods
      */
@@ -0,0 +1,324 @@
+package org.openjfx;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted index from letter trigram to the ids of words containing it.
+ * Words are padded with two blanks on each side, so a word of n letters has n + 2 trigrams and one insertion,
+ * deletion or substitution changes at most three of them, a transposition four. A word within k edits of another
+ * therefore shares at least max(g1, g2) - 3k - t of their distinct trigrams, where t = k - |n1 - n2| is the most of
+ * the edits that can be transpositions, which rules out most of the dictionary before any distance is computed.
+ * Postings are ids in increasing order stored as varint-encoded deltas, indexed directly by trigram code with no
+ * hashing.
+ */
+public class TrigramIndex {
+    /**
+     * Letter codes, 0 is padding and anything that isn't a-z
+     */
+    private static final int LETTERS = 27;
+    private static final int GRAMS = LETTERS * LETTERS * LETTERS;
+
+    /**
+     * Most trigrams an insertion, deletion or substitution can change, and a transposition
+     */
+    static final int GRAMS_PER_EDIT = 3;
+    static final int GRAMS_PER_TRANSPOSITION = 4;
+
+    /**
+     * Last query made on each thread, its count array is cleared and reused by the thread's next query
+     */
+    private static final ThreadLocal<Query> LAST_QUERY = new ThreadLocal<>();
+
+    /**
+     * Number of ids built per task when building in parallel
+     */
+    private static final int CHUNK = 8192;
+
+    /**
+     * Encoded postings of each trigram, and bytes used of each
+     */
+    private final byte[][] postings = new byte[GRAMS][];
+    private final int[] used = new int[GRAMS];
+
+    /**
+     * Last id posted to each trigram, deltas are taken from it
+     */
+    private final int[] last = new int[GRAMS];
+
+    /**
+     * Number of distinct trigrams and length of each word id, capped at 255
+     */
+    private byte[] gramCounts;
+    private byte[] lengths;
+    private int size;
+
+    /**
+     * Constructor, indexes every word of a store, chunks of ids are indexed in parallel then joined in id order
+     * @param store Store to index
+     */
+    public TrigramIndex(WordStore store) {
+        int count = store.size();
+        this.gramCounts = new byte[Math.max(16, count)];
+        this.lengths = new byte[gramCounts.length];
+        this.size = count;
+        Arrays.fill(last, -1);
+
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        TrigramIndex[] parts = new TrigramIndex[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            TrigramIndex part = new TrigramIndex();
+            int[] grams = new int[64];
+            for (int id = c * CHUNK; id < Math.min(count, (c + 1) * CHUNK); id++) {
+                String word = store.word(id);
+                if (word.length() + 2 > grams.length) {
+                    grams = new int[word.length() + 2];
+                }
+                int n = distinctGrams(word, grams);
+                gramCounts[id] = (byte) Math.min(n, 255);
+                lengths[id] = (byte) Math.min(word.length(), 255);
+                for (int i = 0; i < n; i++) {
+                    part.post(grams[i], id);
+                }
+            }
+            parts[c] = part;
+        });
+
+        // each trigram's postings are joined in chunk order, continuing the deltas from the previous chunk
+        IntStream.range(0, GRAMS).parallel().forEach(gram -> {
+            for (TrigramIndex part : parts) {
+                byte[] bytes = part.postings[gram];
+                if (bytes == null) {
+                    continue;
+                }
+                int position = 0;
+                int id = -1;
+                while (position < part.used[gram]) {
+                    int delta = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = bytes[position++];
+                        delta |= (b & 0x7f) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    id += delta;
+                    post(gram, id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Empty index, used for the parts of a parallel build
+     */
+    private TrigramIndex() {
+        Arrays.fill(last, -1);
+    }
+
+    /**
+     * Indexes a word added after building, its id must be larger than any indexed so far
+     * @param id Id of word in store
+     * @param word Word to index
+     */
+    public synchronized void add(int id, String word) {
+        int[] grams = new int[word.length() + 2];
+        int n = distinctGrams(word, grams);
+        if (id >= gramCounts.length) {
+            gramCounts = Arrays.copyOf(gramCounts, Math.max(id + 1, gramCounts.length * 2));
+            lengths = Arrays.copyOf(lengths, gramCounts.length);
+        }
+        gramCounts[id] = (byte) Math.min(n, 255);
+        lengths[id] = (byte) Math.min(word.length(), 255);
+        size = Math.max(size, id + 1);
+        for (int i = 0; i < n; i++) {
+            post(grams[i], id);
+        }
+    }
+
+    /**
+     * Starts a search for words close to a word, counting trigrams each shares with it.
+     * The count array is reused from the thread's last query, which must not be used after this
+     * @param word Word to find close words of
+     * @return Query to get candidates from at increasing distances
+     */
+    public synchronized Query query(String word) {
+        int[] grams = new int[word.length() + 2];
+        int n = distinctGrams(word, grams);
+        Query last = LAST_QUERY.get();
+        byte[] shared;
+        if (last != null && last.shared.length >= size) {
+            shared = last.shared;
+            for (int id : last.touched) {
+                shared[id] = 0; // the only counts it left behind
+            }
+        } else {
+            shared = new byte[size + size / 8]; // room for words added later
+        }
+        int[] touched = new int[256];
+        int touchedCount = 0;
+
+        // merge-count, every posting of every trigram of word adds one to its id
+        for (int i = 0; i < n && n < 256; i++) {
+            byte[] bytes = postings[grams[i]];
+            int position = 0;
+            int id = -1;
+            while (position < used[grams[i]]) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    delta |= (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                id += delta;
+                if (shared[id]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touched.length * 2);
+                    }
+                    touched[touchedCount++] = id;
+                }
+            }
+        }
+        touched = Arrays.copyOf(touched, touchedCount);
+        Arrays.sort(touched); // alphabetical for stock words, so ties go the same way as a full scan
+        // arrays are only ever grown into copies, so ids below size keep their values for the query
+        Query query = new Query(word.length(), n, shared, touched, gramCounts, lengths);
+        LAST_QUERY.set(query);
+        return query;
+    }
+
+    /**
+     * Search started by query, hands out each candidate once as the distance allowed grows
+     */
+    public static class Query {
+        private final int length;
+        private final int grams;
+        private final byte[] shared;
+        private final int[] touched;
+        private final byte[] gramCounts;
+        private final byte[] lengths;
+
+        /**
+         * Number of candidates handed out so far
+         */
+        private int handedOut;
+
+        private Query(int length, int grams, byte[] shared, int[] touched, byte[] gramCounts, byte[] lengths) {
+            this.length = length;
+            this.grams = grams;
+            this.shared = shared;
+            this.touched = touched;
+            this.gramCounts = gramCounts;
+            this.lengths = lengths;
+        }
+
+        /**
+         * Gets words that may be within k edits and weren't returned for a smaller k
+         * @param k Edits allowed
+         * @return Ids of candidates, or null if at this distance words sharing no trigram could qualify, so
+         * the whole dictionary has to be scanned
+         */
+        public int[] candidates(int k) {
+            if (grams - GRAMS_PER_TRANSPOSITION * k <= 0 || grams >= 256) {
+                return null;
+            }
+            int[] out = new int[16];
+            int n = 0;
+            for (int i = 0; i < touched.length; i++) {
+                int id = touched[i];
+                if (shared[id] == 0) {
+                    continue; // handed out already
+                }
+                int lengthDifference = Math.abs((lengths[id] & 0xff) - length);
+                if (lengthDifference > k) {
+                    continue;
+                }
+                // that many edits are insertions or deletions, only the rest can be transpositions
+                int transpositions = k - lengthDifference;
+                int needed = Math.max(grams, gramCounts[id] & 0xff) - GRAMS_PER_EDIT * k - transpositions;
+                if ((shared[id] & 0xff) < needed) {
+                    continue;
+                }
+                shared[id] = 0;
+                if (n == out.length) {
+                    out = Arrays.copyOf(out, n * 2);
+                }
+                out[n++] = id;
+            }
+            handedOut += n;
+            return Arrays.copyOf(out, n);
+        }
+
+        /**
+         * @return Number of candidates handed out so far
+         */
+        public int handedOut() {
+            return handedOut;
+        }
+    }
+
+    /**
+     * @return Number of word ids indexed
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Appends id to postings of a trigram
+     */
+    private void post(int gram, int id) {
+        byte[] bytes = postings[gram];
+        if (bytes == null) {
+            bytes = postings[gram] = new byte[8];
+        } else if (used[gram] + 5 > bytes.length) {
+            bytes = postings[gram] = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        int delta = id - last[gram];
+        last[gram] = id;
+        int position = used[gram];
+        while ((delta & ~0x7f) != 0) {
+            bytes[position++] = (byte) ((delta & 0x7f) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[position++] = (byte) delta;
+        used[gram] = position;
+    }
+
+    /**
+     * Gets distinct trigram codes of a padded word
+     * @param word Word to split
+     * @param out Receives codes, at least word.length() + 2 long
+     * @return Number of distinct codes, sorted at start of out
+     */
+    static int distinctGrams(String word, int[] out) {
+        int n = word.length() + 2;
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < n; i++) {
+            int c = i < word.length() ? letter(word.charAt(i)) : 0;
+            out[i] = (a * LETTERS + b) * LETTERS + c;
+            a = b;
+            b = c;
+        }
+        Arrays.sort(out, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || out[i] != out[i - 1]) {
+                out[distinct++] = out[i];
+            }
+        }
+        return distinct;
+    }
+
+    private static int letter(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        } else if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        return 0;
+    }
+}
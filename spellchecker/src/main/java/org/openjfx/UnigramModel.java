@@ -0,0 +1,191 @@
+package org.openjfx;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Word frequencies of the stock dictionary, quantized to one byte per word.
+ * Bytes are indexed by word store id, so looking up a candidate's frequency is an array index. Built offline from a
+ * plain-text corpus by main, the table only applies to the dictionary it was built against, checked by fingerprint.
+ */
+public class UnigramModel {
+    /**
+     * Marks a unigram table file
+     */
+    private static final int MAGIC = 0x55474d31; // "UGM1"
+
+    /**
+     * Model used when no table is available, every word is unseen
+     */
+    public static final UnigramModel EMPTY = new UnigramModel(new byte[0]);
+
+    /**
+     * Quantized log frequency of each word id, 0 for words not seen in the corpus
+     */
+    private final byte[] table;
+
+    private UnigramModel(byte[] table) {
+        this.table = table;
+    }
+
+    /**
+     * @param id Word store id
+     * @return Quantized frequency from 0 (unseen) to 255 (most common)
+     */
+    public int quantized(int id) {
+        return id < table.length ? table[id] & 0xff : 0;
+    }
+
+    /**
+     * @return Number of words in table
+     */
+    public int size() {
+        return table.length;
+    }
+
+    /**
+     * Loads table built for the words in store, call before any other words are added
+     * @param path Path of table file
+     * @param store Store holding the stock dictionary
+     * @return Loaded model, or EMPTY if file is missing or was built for another dictionary
+     */
+    public static UnigramModel load(String path, WordStore store) {
+        File file = new File(path);
+        if (!file.isFile()) {
+            return EMPTY;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return EMPTY;
+            }
+            int count = in.readInt();
+            long fingerprint = in.readLong();
+            if (count != store.size() || fingerprint != fingerprint(store)) {
+                System.out.println("Unigram table was built for another dictionary, ignoring it");
+                return EMPTY;
+            }
+            byte[] table = new byte[count];
+            in.readFully(table);
+            return new UnigramModel(table);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Counts words of a corpus and quantizes their log frequency so the most common word gets 255
+     * @param store Store holding the stock dictionary
+     * @param corpus Plain-text files to count words of
+     * @return Model aligned with ids of store
+     */
+    public static UnigramModel build(WordStore store, File... corpus) throws IOException {
+        HashMap<String, long[]> counts = new HashMap<>();
+        StringBuilder word = new StringBuilder();
+        for (File file : corpus) {
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                int c;
+                while ((c = br.read()) != -1) {
+                    if (Character.isLetter(c)) {
+                        word.append((char) Character.toLowerCase(c));
+                    } else if (word.length() > 0) {
+                        counts.computeIfAbsent(word.toString(), k -> new long[1])[0]++;
+                        word.setLength(0);
+                    }
+                }
+                if (word.length() > 0) {
+                    counts.computeIfAbsent(word.toString(), k -> new long[1])[0]++;
+                    word.setLength(0);
+                }
+            }
+        }
+
+        long[] byId = new long[store.size()];
+        long[] max = { 0 };
+        store.forEachCandidate(0, Integer.MAX_VALUE, (id, w, length) -> {
+            long[] count = counts.get(new String(w, 0, length));
+            if (count != null) {
+                byId[id] = count[0];
+                max[0] = Math.max(max[0], count[0]);
+            }
+            return true;
+        });
+
+        byte[] table = new byte[byId.length];
+        double scale = max[0] == 0 ? 0 : 255 / Math.log1p(max[0]);
+        for (int id = 0; id < byId.length; id++) {
+            if (byId[id] > 0) {
+                // seen words never round down to unseen
+                table[id] = (byte) Math.max(1, Math.round(Math.log1p(byId[id]) * scale));
+            }
+        }
+        return new UnigramModel(table);
+    }
+
+    /**
+     * Writes table to a file to be loaded later
+     * @param path Path of table file
+     * @param store Store the model was built from
+     */
+    public void save(String path, WordStore store) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(table.length);
+            out.writeLong(fingerprint(store));
+            out.write(table);
+        }
+    }
+
+    /**
+     * Hashes words in id order, so a table is only used with ids it was built for
+     */
+    private static long fingerprint(WordStore store) {
+        long[] hash = { 0xcbf29ce484222325L };
+        store.forEachCandidate(0, Integer.MAX_VALUE, (id, w, length) -> {
+            long h = hash[0] ^ id;
+            for (int i = 0; i < length; i++) {
+                h = (h ^ w[i]) * 0x100000001b3L;
+            }
+            hash[0] = h * 0x100000001b3L;
+            return true;
+        });
+        return hash[0];
+    }
+
+    /**
+     * Builds table offline from a corpus.
+     * Usage: UnigramModel corpus.txt [more.txt ...], written to the unigram path of Config
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: UnigramModel corpus.txt [more.txt ...]");
+            return;
+        }
+        Config config = new Config();
+        WordStore store = new WordStore(Dictionary.loadStock(new File(config.STD_DICTIONARY_PATH)));
+
+        File[] corpus = new File[args.length];
+        for (int i = 0; i < args.length; i++) {
+            corpus[i] = new File(args[i]);
+        }
+        long startTime = System.nanoTime();
+        UnigramModel model = build(store, corpus);
+        model.save(config.UNIGRAM_PATH, store);
+
+        int seen = 0;
+        for (int id = 0; id < model.size(); id++) {
+            seen += model.quantized(id) > 0 ? 1 : 0;
+        }
+        System.out.println(seen + " of " + model.size() + " words seen, written to " + config.UNIGRAM_PATH
+                + " in " + (System.nanoTime() - startTime) / 1000000 + " ms");
+    }
+}
@@ -0,0 +1,63 @@
+package org.openjfx;
+
+/**
+ * Splits words run together, "thisisatest" into "this is a test".
+ * One walk down the trie from each position finds every word starting there, and the best split of each suffix is
+ * kept in a table filled from the end, so every suffix is split once and the whole search takes at most the length
+ * of the text times the length of the longest word. The best split has the fewest words, then the longest, by sum
+ * of squared lengths, so "this is" beats "thi sis", then the longest first word, so "this is" beats "th isis" too.
+ * The dictionary lists every letter as a word, so the only one-letter words split off are "a" and "i".
+ */
+public final class WordSegmenter {
+    /**
+     * Cost of each word of a split, more than any sum of squared lengths takes off
+     */
+    private static final long WORD_COST = 1L << 40;
+
+    private WordSegmenter() {
+    }
+
+    /**
+     * @param trie Words to split into
+     * @param text Text to split, letters other than a-z are never part of a word
+     * @return Words of the best split in order, or null if text can't be split into two or more words
+     */
+    public static String[] segment(Trie trie, String text) {
+        int n = text.length();
+        if (n < 2) {
+            return null;
+        }
+        long[] cost = new long[n + 1]; // cost of best split of text from each position, MAX_VALUE if none
+        int[] next = new int[n + 1]; // end of first word of that split
+        int[] ends = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            cost[i] = Long.MAX_VALUE;
+            int count = trie.wordEnds(text, i, ends);
+            for (int e = 0; e < count; e++) {
+                int j = ends[e];
+                if (cost[j] == Long.MAX_VALUE || (j == i + 1 && text.charAt(i) != 'a' && text.charAt(i) != 'i')) {
+                    continue;
+                }
+                long c = cost[j] + WORD_COST - (long) (j - i) * (j - i);
+                if (c <= cost[i]) { // ends come shortest first
+                    cost[i] = c;
+                    next[i] = j;
+                }
+            }
+        }
+        if (cost[0] == Long.MAX_VALUE || next[0] == n) {
+            return null; // no split, or the best is text as one word
+        }
+
+        int words = 0;
+        for (int i = 0; i < n; i = next[i]) {
+            words++;
+        }
+        String[] out = new String[words];
+        for (int i = 0, w = 0; i < n; i = next[i]) {
+            out[w++] = text.substring(i, next[i]);
+        }
+        return out;
+    }
+
+}
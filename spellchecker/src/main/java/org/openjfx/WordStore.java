@@ -0,0 +1,299 @@
+package org.openjfx;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Flat store of every dictionary word, scanned when looking for suggestions.
+ * Words are packed into one char array and keep the id they were added with. Alphabetical order is an immutable
+ * sorted base plus a small sorted delta of words added since, so adding a word costs O(delta) instead of
+ * rebuilding the list. Once the delta grows past COMPACT_THRESHOLD it is merged into a new base in the background.
+ * Readers work on an immutable snapshot and never wait on writers.
+ */
+public class WordStore {
+    /**
+     * Size of delta at which it is merged into the base
+     */
+    static final int COMPACT_THRESHOLD = 256;
+
+    /**
+     * Thread compactions run on
+     */
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "word-store-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Immutable view of the store, words with id below count are never changed
+     */
+    private static final class Snapshot {
+        final char[] chars;
+        final int[] starts; // start of word id in chars, starts[count] is end of last word
+        final int count;
+        final int[] base; // sorted ids
+        final int[] delta; // sorted ids added since base was built
+
+        Snapshot(char[] chars, int[] starts, int count, int[] base, int[] delta) {
+            this.chars = chars;
+            this.starts = starts;
+            this.count = count;
+            this.base = base;
+            this.delta = delta;
+        }
+    }
+
+    /**
+     * Current snapshot, replaced on every change
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * True while a compaction is scheduled or running
+     */
+    private boolean compacting;
+
+    /**
+     * Constructor, creates empty store
+     */
+    public WordStore() {
+        this.snapshot = new Snapshot(new char[64], new int[17], 0, new int[0], new int[0]);
+    }
+
+    /**
+     * Constructor, stores every word of a trie as the base, ids follow alphabetical order
+     * @param trie Trie to copy words from
+     */
+    public WordStore(Trie trie) {
+        char[][] chars = { new char[1 << 16] };
+        int[][] starts = { new int[1 << 12] };
+        int[] count = { 0 };
+        trie.forEachWord("", 0, Integer.MAX_VALUE, (word, length) -> {
+            int n = count[0];
+            int start = starts[0][n];
+            if (start + length > chars[0].length) {
+                chars[0] = Arrays.copyOf(chars[0], Math.max(chars[0].length * 2, start + length));
+            }
+            if (n + 2 > starts[0].length) {
+                starts[0] = Arrays.copyOf(starts[0], starts[0].length * 2);
+            }
+            System.arraycopy(word, 0, chars[0], start, length);
+            starts[0][n + 1] = start + length;
+            count[0] = n + 1;
+            return true;
+        });
+
+        int[] base = new int[count[0]];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = i;
+        }
+        this.snapshot = new Snapshot(chars[0], starts[0], count[0], base, new int[0]);
+    }
+
+    /**
+     * Adds a word, callers make sure it isn't stored already
+     * @param word Word to add
+     * @return Id of word
+     */
+    public synchronized int add(String word) {
+        Snapshot s = snapshot;
+        int id = s.count;
+        int start = s.starts[id];
+
+        // append in place, readers never look past their snapshot's count
+        char[] chars = s.chars;
+        if (start + word.length() > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, start + word.length()));
+        }
+        int[] starts = s.starts;
+        if (id + 2 > starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+        }
+        word.getChars(0, word.length(), chars, start);
+        starts[id + 1] = start + word.length();
+
+        // copy-on-write insert into sorted delta
+        int at = insertionPoint(chars, starts, s.delta, word);
+        int[] delta = new int[s.delta.length + 1];
+        System.arraycopy(s.delta, 0, delta, 0, at);
+        delta[at] = id;
+        System.arraycopy(s.delta, at, delta, at + 1, s.delta.length - at);
+
+        snapshot = new Snapshot(chars, starts, id + 1, s.base, delta);
+
+        if (delta.length >= COMPACT_THRESHOLD && !compacting) {
+            compacting = true;
+            COMPACTOR.execute(this::compact);
+        }
+        return id;
+    }
+
+    /**
+     * Merges delta into base, words added meanwhile stay in the delta
+     */
+    public void compact() {
+        Snapshot start = snapshot;
+        int[] merged = merge(start.chars, start.starts, start.base, start.delta);
+
+        synchronized (this) {
+            Snapshot now = snapshot;
+            // ids added since compaction started are at the end of the id range
+            int[] remaining = new int[now.delta.length - start.delta.length];
+            int n = 0;
+            for (int id : now.delta) {
+                if (id >= start.count) {
+                    remaining[n++] = id;
+                }
+            }
+            snapshot = new Snapshot(now.chars, now.starts, now.count, merged, remaining);
+            compacting = false;
+        }
+    }
+
+    /**
+     * @return Number of words stored
+     */
+    public int size() {
+        return snapshot.count;
+    }
+
+    /**
+     * @return Number of words not yet merged into the base
+     */
+    public int deltaSize() {
+        return snapshot.delta.length;
+    }
+
+    /**
+     * @param id Id of word
+     * @return Word with id
+     */
+    public String word(int id) {
+        Snapshot s = snapshot;
+        if (id < 0 || id >= s.count) {
+            throw new IndexOutOfBoundsException("Word " + id + " of " + s.count);
+        }
+        return new String(s.chars, s.starts[id], s.starts[id + 1] - s.starts[id]);
+    }
+
+    /**
+     * @param word Word to look up
+     * @return Id of word, or -1 if it isn't stored
+     */
+    public int id(String word) {
+        Snapshot s = snapshot;
+        for (int[] ids : new int[][] { s.base, s.delta }) {
+            int i = insertionPoint(s.chars, s.starts, ids, word);
+            if (i < ids.length && compare(s.chars, s.starts[ids[i]], s.starts[ids[i] + 1], word) == 0) {
+                return ids[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Streams words in alphabetical order, merging base and delta on the fly
+     * @param minLength Shortest word to visit
+     * @param maxLength Longest word to visit
+     * @param visitor Called with each word, return false to stop
+     */
+    public void forEach(int minLength, int maxLength, WordVisitor visitor) {
+        forEachCandidate(minLength, maxLength, (id, word, length) -> visitor.visit(word, length));
+    }
+
+    /**
+     * Streams words with their ids in alphabetical order, merging base and delta on the fly
+     * @param minLength Shortest word to visit
+     * @param maxLength Longest word to visit
+     * @param visitor Called with each word and its id, return false to stop
+     */
+    public void forEachCandidate(int minLength, int maxLength, CandidateVisitor visitor) {
+        Snapshot s = snapshot;
+        char[] buffer = new char[32];
+        int b = 0;
+        int d = 0;
+        while (b < s.base.length || d < s.delta.length) {
+            int id;
+            if (d == s.delta.length
+                    || (b < s.base.length && compare(s.chars, s.starts, s.base[b], s.delta[d]) <= 0)) {
+                id = s.base[b++];
+            } else {
+                id = s.delta[d++];
+            }
+
+            int start = s.starts[id];
+            int length = s.starts[id + 1] - start;
+            if (length < minLength || length > maxLength) {
+                continue;
+            }
+            if (length > buffer.length) {
+                buffer = new char[Math.max(length, buffer.length * 2)];
+            }
+            System.arraycopy(s.chars, start, buffer, 0, length);
+            if (!visitor.visit(id, buffer, length)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted id lists into one
+     */
+    private static int[] merge(char[] chars, int[] starts, int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            out[n++] = compare(chars, starts, a[i], b[j]) <= 0 ? a[i++] : b[j++];
+        }
+        while (i < a.length) {
+            out[n++] = a[i++];
+        }
+        while (j < b.length) {
+            out[n++] = b[j++];
+        }
+        return out;
+    }
+
+    /**
+     * Finds where a word goes in a sorted id list
+     */
+    private static int insertionPoint(char[] chars, int[] starts, int[] ids, String word) {
+        int lo = 0;
+        int hi = ids.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int id = ids[mid];
+            if (compare(chars, starts[id], starts[id + 1], word) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Compares two stored words
+     */
+    private static int compare(char[] chars, int[] starts, int x, int y) {
+        return Arrays.compare(chars, starts[x], starts[x + 1], chars, starts[y], starts[y + 1]);
+    }
+
+    /**
+     * Compares stored word in chars [from, to) with a String
+     */
+    private static int compare(char[] chars, int from, int to, String word) {
+        int length = Math.min(to - from, word.length());
+        for (int i = 0; i < length; i++) {
+            int c = chars[from + i] - word.charAt(i);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return (to - from) - word.length();
+    }
+}
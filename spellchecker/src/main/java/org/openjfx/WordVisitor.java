@@ -0,0 +1,15 @@
+package org.openjfx;
+
+/**
+ * Visitor for streaming words out of a Trie without building a list of them
+ */
+@FunctionalInterface
+public interface WordVisitor {
+    /**
+     * Called for each word in alphabetical order
+     * @param word Buffer holding the word, reused between calls so copy it to keep it
+     * @param length Number of letters of word in buffer
+     * @return True to continue, false to stop enumerating
+     */
+    boolean visit(char[] word, int length);
+}
@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjfx.BigramModel;
+
+class BigramModelTest {
+    @TempDir
+    Path dir;
+
+    private BigramModel build(String corpus) throws Exception {
+        Path text = Files.writeString(dir.resolve("corpus.txt"), corpus);
+        String table = dir.resolve("bigrams.bin").toString();
+        BigramModel.build(table, text.toFile());
+        return BigramModel.open(table);
+    }
+
+    @Test
+    void costFollowsCounts() throws Exception {
+        BigramModel model = build("the cat sat. the cat ran. the dog sat.");
+        assertTrue(model.isLoaded());
+        assertTrue(model.cost("the", "cat") < model.cost("the", "dog"));
+        assertEquals(0, model.cost("dog", "sat")); // always follows
+        assertEquals(255, model.cost("sat", "the")); // split by full stop
+        assertEquals(255, model.cost("cat", "dog"));
+    }
+
+    @Test
+    void contextReordersSuggestions() throws Exception {
+        BigramModel model = build("I ate the cake. I ate the cake. She baked a cake. We went to the lake.");
+        String[] suggestions = { "lake", "cake", "rake", null };
+        String[] reranked = model.rerank(suggestions, "the", null);
+        assertArrayEquals(new String[] { "lake", "cake", "rake", null }, reranked); // not sure enough to move
+        reranked = model.rerank(suggestions, "ate", null);
+        assertEquals("lake", suggestions[0]); // input untouched
+        assertArrayEquals(new String[] { "lake", "cake", "rake", null }, reranked);
+        reranked = model.rerank(suggestions, "a", null);
+        assertArrayEquals(new String[] { "cake", "lake", "rake", null }, reranked);
+    }
+
+    @Test
+    void missingTableLeavesSuggestions() {
+        BigramModel model = BigramModel.open(dir.resolve("missing.bin").toString());
+        String[] suggestions = { "b", "a" };
+        assertFalse(model.isLoaded());
+        assertSame(suggestions, model.rerank(suggestions, "x", "y"));
+    }
+}
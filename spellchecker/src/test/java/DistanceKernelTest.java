@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.DistanceKernel;
+import org.openjfx.KeyboardDistance;
+import org.openjfx.Trie;
+import org.openjfx.WordStore;
+
+class DistanceKernelTest {
+
+    @Test
+    void matchesLevenshteinEditDistance() {
+        Random random = new Random(3);
+        Trie trie = new Trie();
+        for (int i = 0; i < 400; i++) {
+            trie.add(RandomWords.word(random, 1, i < 5 ? 70 : 9, "abcd"));
+        }
+        WordStore store = new WordStore(trie);
+        DistanceKernel kernel = new DistanceKernel(store);
+        kernel.add(store.add("caf\u00E9"), "caf\u00E9");
+        kernel.add(store.add("na\u0107"), "na\u0107"); // doesn't fit a byte
+
+        for (String word : new String[] { "abcd", "dcba", "", "aaaaaaaa", "cafe", "badcab", "abababababababa" }) {
+            HashMap<Integer, Integer> found = new HashMap<>();
+            int[] unpacked = kernel.scan(word, Integer.MAX_VALUE, (id, distance) -> {
+                assertNull(found.put(id, distance));
+                return Integer.MAX_VALUE;
+            });
+            for (int id : unpacked) {
+                found.put(id, -1);
+            }
+            assertEquals(store.size(), found.size());
+            for (int id = 0; id < store.size(); id++) {
+                String other = store.word(id);
+                if (other.length() > 64 || other.indexOf('\u0107') >= 0) {
+                    assertEquals(-1, found.get(id), other);
+                } else {
+                    assertEquals(RandomWords.distance(word, other), found.get(id), word + " " + other);
+                }
+            }
+        }
+    }
+
+    @Test
+    void batchMatchesScan() {
+        Random random = new Random(5);
+        Trie trie = new Trie();
+        for (int i = 0; i < 400; i++) {
+            trie.add(RandomWords.word(random, 1, 12, "abcde"));
+        }
+        WordStore store = new WordStore(trie);
+        DistanceKernel kernel = new DistanceKernel(store);
+        String[] words = new String[40];
+        for (int q = 0; q < words.length; q++) {
+            words[q] = RandomWords.word(random, 1, q < 30 ? 6 : 63, "abcde"); // several to a long
+        }
+
+        HashMap<Long, Integer> found = new HashMap<>();
+        kernel.scanBatch(words, Integer.MAX_VALUE, (query, id, distance) -> {
+            assertNull(found.put((long) query << 32 | id, distance));
+            return Integer.MAX_VALUE;
+        });
+        for (int q = 0; q < words.length; q++) {
+            int query = q;
+            kernel.scan(words[q], Integer.MAX_VALUE, (id, distance) -> {
+                assertEquals(distance, found.remove((long) query << 32 | id), words[query] + " " + store.word(id));
+                return Integer.MAX_VALUE;
+            });
+        }
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void skipsWordsPastBound() {
+        Trie trie = new Trie();
+        for (String word : Arrays.asList("form", "from", "fork", "forms", "a", "formidable")) {
+            trie.add(word);
+        }
+        WordStore store = new WordStore(trie);
+        DistanceKernel kernel = new DistanceKernel(store);
+        HashMap<String, Integer> found = new HashMap<>();
+        kernel.scan("form", 1, (id, distance) -> {
+            found.put(store.word(id), distance);
+            return 1;
+        });
+        HashMap<String, Integer> expected = new HashMap<>();
+        expected.put("form", 0);
+        expected.put("from", 1);
+        expected.put("fork", 1);
+        expected.put("forms", 1);
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void nearKeysBoundKeyboardDistance() {
+        Random random = new Random(8);
+        Trie trie = new Trie();
+        for (int i = 0; i < 400; i++) {
+            trie.add(RandomWords.word(random, 1, 7, "qwasedrf"));
+        }
+        WordStore store = new WordStore(trie);
+        DistanceKernel kernel = new DistanceKernel(store);
+        for (String word : new String[] { "wade", "sedfr", "q", "dessert" }) {
+            int[] visited = { 0 };
+            kernel.scan(word, true, Integer.MAX_VALUE, Long.MAX_VALUE, (id, distance) -> {
+                visited[0]++;
+                assertTrue(distance * KeyboardDistance.EDIT_COST <= KeyboardDistance.distance(word, store.word(id)),
+                        word + " " + store.word(id));
+                return Integer.MAX_VALUE;
+            });
+            assertEquals(store.size(), visited[0]);
+        }
+    }
+}
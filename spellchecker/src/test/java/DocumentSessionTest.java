@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.Config;
+import org.openjfx.Dictionary;
+import org.openjfx.Document;
+import org.openjfx.DocumentSession;
+import org.openjfx.DocumentSnapshot;
+import org.openjfx.SpellChecker;
+
+class DocumentSessionTest {
+    Config config = new Config();
+    Dictionary dict = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH);
+    SpellChecker spellChecker = new SpellChecker(dict);
+
+    /**
+     * Results posted by the session, run by the test thread standing in for the JavaFX thread
+     */
+    BlockingQueue<Runnable> posted = new LinkedBlockingQueue<>();
+
+    /**
+     * Runs posted results until a condition holds
+     */
+    private void runUntil(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Runnable next = posted.poll(30, TimeUnit.SECONDS);
+            assertNotNull(next, "session posted nothing");
+            next.run();
+        }
+    }
+
+    /**
+     * An event that fails by throwing Error is still marked applied, so the buttons bound to applying come back
+     */
+    @Test
+    void failedEventStopsApplying() throws Exception {
+        File input = File.createTempFile("session", ".txt");
+        input.deleteOnExit();
+        Files.writeString(input.toPath(), "Xqzzt's here.\n");
+
+        DocumentSession session = new DocumentSession(posted::add);
+        List<DocumentSnapshot> snapshots = new ArrayList<>();
+        session.setOnSnapshot(snapshots::add);
+        session.open(() -> new Document(input, spellChecker, config));
+        runUntil(() -> !session.applyingProperty().get());
+        assertEquals("Xqzzt's", snapshots.get(0).errorWord);
+
+        // not letters only, so the dictionary refuses it and the document throws Error
+        boolean[] then = { false };
+        session.submit("add-to-dict", () -> then[0] = true);
+        assertTrue(session.applyingProperty().get());
+        runUntil(() -> !session.applyingProperty().get() && !session.runningProperty().get());
+        assertEquals(1, snapshots.size());
+        assertFalse(then[0]);
+
+        session.submit("ignore"); // the session carries on after the failure
+        runUntil(() -> !session.applyingProperty().get());
+        assertEquals(2, snapshots.size());
+    }
+}
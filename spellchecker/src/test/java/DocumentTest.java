@@ -43,7 +43,7 @@ public class DocumentTest {
         Document doc = getTestDocument();
 
         assertNotNull(doc);
-        assertNotNull(doc.currentContext);
+        assertNotNull(doc.currentContext());
     }
 
     /**
@@ -64,6 +64,29 @@ public class DocumentTest {
         assertEquals(read + sampleLine.length(), doc.bytesRead);
     }
 
+    /**
+     * Verifies that progress is measured in bytes of the file, including multi-byte characters and
+     * the whole line terminator, once a line has been fully checked.
+     */
+    @Test
+    public void progressCountsFileBytes() throws IOException {
+        File input = File.createTempFile("progress", ".txt");
+        input.deleteOnExit();
+        String firstLine = "Caf\u00e9 \u2014 \u00bd off.\r\n"; // 2, 3 and 2 byte characters
+        java.nio.file.Files.writeString(input.toPath(), firstLine + "Xqzzt there.\r\n");
+        int firstLineBytes = firstLine.getBytes(java.nio.charset.StandardCharsets.UTF_8).length;
+        assertEquals(firstLine.length() + 4, firstLineBytes);
+
+        Document doc = new Document(input, spellChecker, config);
+        doc.startSpellCheck();
+        while (!doc.currentError.getMessage().equals("Xqzzt")) {
+            doc.handleEvent("ignore"); // past errors of the first line
+        }
+
+        assertEquals(firstLineBytes, doc.bytesRead);
+        assertEquals(doc.progress, (float) doc.bytesRead / input.length() * 100, 0.001);
+    }
+
     /**
      * Checks the 'replace' functionality of the Document. It replaces the first word of a given
      * text with another word and confirms if the replacement is successful.
@@ -77,12 +100,12 @@ public class DocumentTest {
         int targetIdx = 0;
         String replace = "Goodbye";
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
         doc.handleEvent("replace:" + replace);
 
-        String result = doc.currentContext;
+        String result = doc.currentContext();
         String expected = "Goodbye World";
 
         assertEquals(expected, result);
@@ -101,12 +124,12 @@ public class DocumentTest {
         int targetIdx = 0;
         String replace = "Goodbye";
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
         doc.handleEvent("replace-all:" + replace);
 
-        String result = doc.currentContext;
+        String result = doc.currentContext();
         String expected = "Goodbye World Goodbye World";
 
         assertEquals(expected, result);
@@ -123,12 +146,12 @@ public class DocumentTest {
         String sampleLine = "Hello World";
         int targetIdx = 0;
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
         doc.handleEvent("ignore");
 
-        String result = doc.currentContext;
+        String result = doc.currentContext();
         String expected = sampleLine;
 
         assertEquals(expected, result);
@@ -145,12 +168,12 @@ public class DocumentTest {
         String sampleLine = "Hello World Hello World";
         int targetIdx = 0;
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
         doc.handleEvent("ignore-all");
 
-        String result = doc.currentContext;
+        String result = doc.currentContext();
         String expected = sampleLine;
 
         assertEquals(expected, result);
@@ -158,10 +181,10 @@ public class DocumentTest {
         sampleLine = "Hello";
         targetIdx = 0;
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
-        Error res = doc.spellCheckFile(doc.currentContext, doc.currWordIndex);
+        Error res = doc.spellCheckFile(doc.currWordIndex);
         String errorWord = res.getMessage();
 
         assertFalse(errorWord.equals("Hello"));
@@ -180,12 +203,12 @@ public class DocumentTest {
         String sampleLine = "Hello World.";
         int targetIdx = 0;
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
         doc.handleEvent("delete");
 
-        String result = doc.currentContext;
+        String result = doc.currentContext();
         String expected = "World.";
 
         assertEquals(expected, result);
@@ -202,7 +225,7 @@ public class DocumentTest {
         String sampleLine = "Hllo World";
         int targetIdx = 0;
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
         doc.startSpellCheck();
@@ -229,7 +252,7 @@ public class DocumentTest {
         String sampleLine = "Hllo World";
         int targetIdx = 0;
 
-        doc.currentContext = sampleLine;
+        doc.setContext(sampleLine);
         doc.currWordIndex = targetIdx;
 
         doc.startSpellCheck();
@@ -240,9 +263,98 @@ public class DocumentTest {
 
         doc.handleEvent("manual-edit:" + change);
 
-        String result = doc.currentContext;
+        String result = doc.currentContext();
         String expected = "Hello my World";
 
         assertEquals(expected, result);
     }
+
+    /**
+     * Verifies that saving a checked document only rewrites the edited line and keeps the
+     * original line endings of the file.
+     */
+    @Test
+    public void exitKeepsLineEndings() throws IOException {
+        File input = File.createTempFile("lineEndings", ".txt");
+        File output = new File(input.getParent(), "saved-" + input.getName());
+        input.deleteOnExit();
+        output.deleteOnExit();
+        java.nio.file.Files.writeString(input.toPath(), "Xqzzt there.\r\nAll good here.\r\n");
+
+        Document doc = new Document(input, spellChecker, config);
+        doc.startSpellCheck();
+        assertEquals("Xqzzt", doc.currentError.getMessage());
+
+        doc.handleEvent("replace:Hello");
+        assertNull(doc.currentError);
+
+        doc.handleEvent("exit:" + output.getAbsolutePath());
+        assertEquals("Hello there.\r\nAll good here.\r\n", java.nio.file.Files.readString(output.toPath()));
+    }
+
+    /**
+     * Checks that identical misspellings are grouped: they share one suggestion list and are counted
+     * each time they are flagged.
+     */
+    @Test
+    public void repeatedMisspellingCounted() {
+        Document doc = getTestDocument();
+
+        doc.setContext("Xqzzt is xqzzt is Xqzzt");
+        doc.currWordIndex = 0;
+
+        doc.startSpellCheck();
+        assertEquals("Xqzzt", doc.currentError.getMessage());
+        String[] first = doc.currentSuggestions;
+
+        doc.handleEvent("ignore");
+        assertEquals("xqzzt", doc.currentError.getMessage());
+
+        doc.handleEvent("ignore");
+        assertEquals("Xqzzt", doc.currentError.getMessage());
+        assertSame(first, doc.currentSuggestions);
+        assertEquals(2, doc.getOccurrenceCount("Xqzzt"));
+    }
+
+    /**
+     * Checks that the count of a misspelling is its total in the file, already at its first occurrence,
+     * once the error index has read the whole file.
+     */
+    @Test
+    public void occurrenceCountIsFileTotal() throws Exception {
+        File input = File.createTempFile("occurrences", ".txt");
+        input.deleteOnExit();
+        java.nio.file.Files.writeString(input.toPath(), "Xqzzt is here.\nNo xqzzt, Xqzzt there.\nXqzzt is back.\n");
+
+        Document doc = new Document(input, spellChecker, config);
+        doc.startSpellCheck();
+        assertEquals("Xqzzt", doc.currentError.getMessage());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (doc.getOccurrenceCount("Xqzzt") < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(3, doc.getOccurrenceCount("Xqzzt"));
+        assertEquals(1, doc.getOccurrenceCount("xqzzt,"));
+    }
+
+    /**
+     * Checks that with deferred suggestions an error is flagged without waiting on its suggestions,
+     * which can then be awaited separately.
+     */
+    @Test
+    public void deferredSuggestionsAwaited() throws InterruptedException {
+        Document doc = getTestDocument();
+        doc.deferSuggestions = true;
+
+        doc.setContext("Xqzzt is here");
+        doc.currWordIndex = 0;
+
+        doc.startSpellCheck();
+        assertEquals("Xqzzt", doc.currentError.getMessage());
+        assertNull(doc.currentSuggestions);
+
+        String[] suggestions = doc.awaitSuggestions();
+        assertArrayEquals(spellChecker.getSuggestions("Xqzzt"), suggestions);
+        assertSame(suggestions, doc.currentSuggestions);
+    }
 }
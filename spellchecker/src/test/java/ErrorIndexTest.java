@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.Config;
+import org.openjfx.Dictionary;
+import org.openjfx.Document;
+import org.openjfx.ErrorIndex;
+import org.openjfx.SpellChecker;
+
+import java.io.File;
+import java.nio.file.Files;
+
+class ErrorIndexTest {
+    Config config = new Config();
+    Dictionary dict = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH);
+    SpellChecker spellChecker = new SpellChecker(dict);
+
+    /**
+     * Indexes a file and waits for the background pass to finish
+     */
+    private ErrorIndex indexOf(String text) throws Exception {
+        File file = File.createTempFile("errorIndex", ".txt");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), text);
+
+        ErrorIndex index = ErrorIndex.start(file, spellChecker);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!index.isComplete() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(index.isComplete());
+        return index;
+    }
+
+    @Test
+    void indexesEveryError() throws Exception {
+        ErrorIndex index = indexOf("Xqzzt is fine.\nAll good.\nTwo errrs here qwzx.\n");
+
+        assertEquals(3, index.size());
+        assertEquals(3, index.lines().lineCount());
+
+        assertEquals(0, index.line(0));
+        assertEquals(0, index.offset(0));
+        assertEquals(Document.ErrorType.SPELLING, index.type(0));
+
+        assertEquals(2, index.line(1));
+        assertEquals(4, index.spanStart(1));
+        assertEquals(5, index.spanLength(1));
+        assertEquals("Xqzzt is fine.\nAll good.\nTwo ".length(), index.offset(1));
+        assertEquals("errrs", index.word(1));
+        assertEquals("qwzx.", index.word(2));
+        assertEquals(3, index.count(Document.ErrorType.SPELLING));
+        assertEquals(0, index.count(Document.ErrorType.DOUBLE_WORD));
+        index.close();
+    }
+
+    @Test
+    void countsIdenticalMisspellings() throws Exception {
+        ErrorIndex index = indexOf("Xqzzt is here.\nAnd xqzzt there, xqzzt again.\nXqzzt.\n");
+
+        assertEquals(2, index.occurrences("xqzzt"));
+        assertEquals(1, index.occurrences("Xqzzt"));
+        assertEquals(1, index.occurrences("Xqzzt."));
+        assertEquals(0, index.occurrences("here"));
+        index.close();
+    }
+
+    @Test
+    void contextAroundError() throws Exception {
+        ErrorIndex index = indexOf("One.\nTwo.\nThree.\nFour xqzzt.\nFive.\nSix.\n");
+
+        assertEquals(1, index.size());
+        assertArrayEquals(new String[] {"Three.", "Four xqzzt.", "Five."}, index.context(0, 1));
+        assertEquals(0, index.firstOnOrAfter(2));
+        assertEquals(1, index.firstOnOrAfter(4));
+        index.close();
+    }
+
+    @Test
+    void seeksAcrossCheckpoints() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            text.append(i == 200 ? "Line with xqzzt." : "Line.").append("\r\n");
+        }
+        ErrorIndex index = indexOf(text.toString());
+
+        assertEquals(300, index.lines().lineCount());
+        assertEquals(200, index.line(0));
+        assertEquals("xqzzt.", index.word(0));
+        index.close();
+    }
+
+    @Test
+    void reindexesWhenIgnoreListChanges() throws Exception {
+        ErrorIndex index = indexOf("Xqzzt is fine.\nTwo errrs here.\n");
+        assertEquals(2, index.size());
+
+        spellChecker.ignoreAll("errrs");
+        index.invalidate();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (index.size() != 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, index.size());
+        assertEquals("Xqzzt", index.word(0));
+        assertTrue(index.isComplete());
+        index.close();
+    }
+}
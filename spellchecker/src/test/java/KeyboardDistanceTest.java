@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.KeyboardDistance;
+
+class KeyboardDistanceTest {
+
+    @Test
+    void neighbouringKeysCostLess() {
+        assertEquals(0, KeyboardDistance.substitution('a', 'a'));
+        assertEquals(1, KeyboardDistance.substitution('o', 'p'));
+        assertEquals(1, KeyboardDistance.substitution('e', 's'));
+        assertEquals(1, KeyboardDistance.substitution('d', 'e'));
+        assertEquals(2, KeyboardDistance.substitution('e', 'x'));
+        assertEquals(2, KeyboardDistance.substitution('q', 'p'));
+        assertEquals(1, KeyboardDistance.distance("wprd", "word"));
+        assertEquals(2, KeyboardDistance.distance("ward", "word"));
+        assertEquals(2, KeyboardDistance.distance("form", "from"));
+        assertEquals(4, KeyboardDistance.distance("test", "te"));
+    }
+
+    @Test
+    void boundedMatchesUnbounded() {
+        Random random = new Random(4);
+        for (int i = 0; i < 2000; i++) {
+            String a = RandomWords.word(random, 0, 6, "qwasedrf");
+            String b = RandomWords.word(random, 0, 6, "qwasedrf");
+            int distance = KeyboardDistance.distance(a, b);
+            int edits = RandomWords.distance(a, b);
+            assertTrue(edits <= distance && distance <= 2 * edits, a + " " + b);
+            for (int bound = 0; bound < 8; bound++) {
+                int bounded = KeyboardDistance.distance(a, b.toCharArray(), b.length(), bound);
+                assertEquals(distance <= bound ? distance : bound + 1, bounded, a + " " + b + " " + bound);
+            }
+        }
+    }
+}
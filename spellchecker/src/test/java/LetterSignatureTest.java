@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.LetterSignature;
+
+class LetterSignatureTest {
+
+    @Test
+    void boundsExamples() {
+        assertEquals((4 << 26) | 0b1001, LetterSignature.of("adda"));
+        assertEquals(1, LetterSignature.lowerBound(LetterSignature.of("cat"), LetterSignature.of("cut")));
+        assertEquals(0, LetterSignature.lowerBound(LetterSignature.of("form"), LetterSignature.of("from")));
+        assertEquals(3, LetterSignature.lowerBound(LetterSignature.of("abc"), LetterSignature.of("xyz")));
+        assertEquals(5, LetterSignature.lowerBound(LetterSignature.of("a"), LetterSignature.of("aaaaaa")));
+    }
+
+    @Test
+    void neverAboveDistance() {
+        Random random = new Random(1);
+        int[] signatures = new int[500];
+        String[] words = new String[500];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = RandomWords.word(random, 1, 8, "abcdef");
+            signatures[i] = LetterSignature.of(words[i]);
+        }
+
+        byte[] bounds = new byte[words.length];
+        LetterSignature.lowerBounds(signatures[0], signatures, words.length, bounds);
+        for (int i = 0; i < words.length; i++) {
+            assertEquals(LetterSignature.lowerBound(signatures[0], signatures[i]), bounds[i]);
+            for (int j = 0; j < 20; j++) {
+                int bound = LetterSignature.lowerBound(signatures[i], signatures[j]);
+                assertTrue(bound <= RandomWords.distance(words[i], words[j]), words[i] + " " + words[j]);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjfx.Config;
+import org.openjfx.Dictionary;
+import org.openjfx.LatencyRecorder;
+import org.openjfx.LiveChecker;
+import org.openjfx.SpellChecker;
+
+class LiveCheckerTest {
+    Config config = new Config();
+    Dictionary dict = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH);
+    SpellChecker spellChecker = new SpellChecker(dict);
+
+    @Test
+    void findsMisspellingsAcrossParagraphs() {
+        LiveChecker checker = new LiveChecker(spellChecker);
+        int[] spans = checker.update("Hello xqzzt.\nAll good, don't worry.\nqwzx 123");
+
+        assertArrayEquals(new int[] { 6, 11, 36, 40 }, spans);
+        assertEquals(3, checker.lastRechecked());
+    }
+
+    @Test
+    void onlyChangedParagraphRechecked() {
+        LiveChecker checker = new LiveChecker(spellChecker);
+        checker.update("First line.\nSecond line.\nThird line.");
+
+        int[] spans = checker.update("First line.\nSecond lline.\nThird line.");
+        assertEquals(1, checker.lastRechecked());
+        assertArrayEquals(new int[] { 19, 24 }, spans);
+
+        spans = checker.update("First line.\nNew xqzzt\nSecond lline.\nThird line.");
+        assertEquals(1, checker.lastRechecked());
+        assertArrayEquals(new int[] { 16, 21, 29, 34 }, spans);
+    }
+
+    @Test
+    void checksPartsOfHyphenatedWords() {
+        LiveChecker checker = new LiveChecker(spellChecker);
+        String text = "the well-known spell-casting spel-ling, well-known again.";
+        assertArrayEquals(new int[] { 29, 38 }, checker.update(text));
+        assertArrayEquals(new int[] { 29, 38, 58, 68 }, checker.update(text + "\nwell-knwon"));
+    }
+
+    @Test
+    void addedAndIgnoredWordsLoseUnderline(@TempDir Path dir) throws Exception {
+        Path userDictionary = Files.createFile(dir.resolve("user.txt"));
+        SpellChecker shared = new SpellChecker(new Dictionary(config.STD_DICTIONARY_PATH, userDictionary.toString()));
+        LiveChecker checker = new LiveChecker(shared);
+        int[] rechecks = { 0 };
+        shared.addChangeListener(() -> rechecks[0]++);
+        String text = "Hello xqzzt.\nAnd qwzx.";
+        assertArrayEquals(new int[] { 6, 11, 17, 21 }, checker.update(text));
+
+        assertTrue(shared.addToDictionary("xqzzt"));
+        assertArrayEquals(new int[] { 17, 21 }, checker.update(text)); // unchanged paragraphs are checked again
+        assertEquals(2, checker.lastRechecked());
+
+        shared.ignoreAll("qwzx");
+        assertArrayEquals(new int[0], checker.update(text));
+        assertEquals(2, rechecks[0]);
+    }
+
+    @Test
+    void latencyPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder(50);
+        for (int ms = 1; ms <= 100; ms++) {
+            recorder.record(ms * 1_000_000L);
+        }
+
+        assertEquals(50.0, recorder.percentile(50));
+        assertEquals(99.0, recorder.percentile(99));
+        assertEquals(50, recorder.overBudget());
+        assertEquals(100, recorder.count());
+    }
+}
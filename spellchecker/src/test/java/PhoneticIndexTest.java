@@ -0,0 +1,43 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.DoubleMetaphone;
+import org.openjfx.PhoneticIndex;
+import org.openjfx.Trie;
+import org.openjfx.WordStore;
+
+class PhoneticIndexTest {
+
+    @Test
+    void encodesSoundAlikes() {
+        assertArrayEquals(new String[] { "FNTK", "FNTK" }, DoubleMetaphone.encode("fonetik"));
+        assertArrayEquals(new String[] { "FNTK", "FNTK" }, DoubleMetaphone.encode("Phonetic"));
+        assertArrayEquals(new String[] { "SM0", "XMT" }, DoubleMetaphone.encode("smith"));
+        assertArrayEquals(new String[] { "XMT", "SMT" }, DoubleMetaphone.encode("schmidt"));
+        assertArrayEquals(new String[] { "NT", "NT" }, DoubleMetaphone.encode("knight"));
+        assertArrayEquals(new String[] { "LF", "LF" }, DoubleMetaphone.encode("laugh"));
+        assertArrayEquals(new String[] { "", "" }, DoubleMetaphone.encode(""));
+    }
+
+    @Test
+    void lookupFindsBothKeys() {
+        Trie trie = new Trie();
+        trie.add("phonetic");
+        trie.add("smith");
+        trie.add("schmidt");
+        trie.add("cat");
+        WordStore store = new WordStore(trie);
+        PhoneticIndex index = new PhoneticIndex(store);
+
+        int[] ids = index.lookup("fonetik");
+        assertEquals(1, ids.length);
+        assertEquals("phonetic", store.word(ids[0]));
+
+        // smyth is SM0/XMT, smith shares both keys and schmidt shares XMT
+        assertEquals(2, index.lookup("smyth").length);
+        assertEquals(0, index.lookup("dog").length);
+
+        index.add(store.add("fanatic"), "fanatic");
+        assertEquals(2, index.lookup("fonetik").length);
+    }
+}
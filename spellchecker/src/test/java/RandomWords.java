@@ -0,0 +1,39 @@
+import java.util.Random;
+
+import org.openjfx.SpellChecker;
+
+/**
+ * Random words over a few letters for tests checking a distance or bound against the reference edit distance,
+ * few letters so that many pairs are only a couple of edits apart.
+ */
+final class RandomWords {
+    /**
+     * Checker only used for its reference distance, which doesn't need a dictionary
+     */
+    private static final SpellChecker CHECKER = new SpellChecker(null);
+
+    private RandomWords() {
+    }
+
+    /**
+     * @param random Source of length and letters
+     * @param minLength Shortest word
+     * @param maxLength Longest word
+     * @param letters Letters to pick from
+     * @return Word of minLength to maxLength letters
+     */
+    static String word(Random random, int minLength, int maxLength, String letters) {
+        char[] chars = new char[minLength + random.nextInt(maxLength - minLength + 1)];
+        for (int j = 0; j < chars.length; j++) {
+            chars[j] = letters.charAt(random.nextInt(letters.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return Reference edit distance between a and b, SpellChecker.levenshteinEditDistance
+     */
+    static int distance(String a, String b) {
+        return CHECKER.levenshteinEditDistance(a, b);
+    }
+}
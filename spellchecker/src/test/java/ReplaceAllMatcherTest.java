@@ -0,0 +1,54 @@
+import org.junit.jupiter.api.Test;
+import org.openjfx.ReplaceAllMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplaceAllMatcherTest {
+
+    @Test
+    void noRules() {
+        ReplaceAllMatcher matcher = new ReplaceAllMatcher();
+        assertTrue(matcher.isEmpty());
+        assertEquals("teh cat", matcher.apply("teh cat"));
+    }
+
+    @Test
+    void replacesWholeWords() {
+        ReplaceAllMatcher matcher = new ReplaceAllMatcher();
+        matcher.addRule("teh", "the");
+        assertEquals("the cat sat on the mat", matcher.apply("teh cat sat on teh mat"));
+        assertEquals("tehran teh's", matcher.apply("tehran teh's")); // not whole words
+    }
+
+    @Test
+    void keepsTrailingPunctuation() {
+        ReplaceAllMatcher matcher = new ReplaceAllMatcher();
+        matcher.addRule("teh.", "the"); // rule added from a token at end of sentence
+        assertEquals("the end. And the, the!", matcher.apply("teh end. And teh, teh!"));
+    }
+
+    @Test
+    void longestRuleWins() {
+        ReplaceAllMatcher matcher = new ReplaceAllMatcher();
+        matcher.addRule("g", "G");
+        matcher.addRule("e.g", "eg");
+        assertEquals("eg G", matcher.apply("e.g g"));
+    }
+
+    @Test
+    void laterRuleReplacesEarlier() {
+        ReplaceAllMatcher matcher = new ReplaceAllMatcher();
+        matcher.addRule("recieve", "receive");
+        matcher.addRule("recieve", "retrieve");
+        assertEquals("retrieve it", matcher.apply("recieve it"));
+    }
+
+    @Test
+    void manyRules() {
+        ReplaceAllMatcher matcher = new ReplaceAllMatcher();
+        for (int i = 0; i < 50; i++) {
+            matcher.addRule("word" + i, "w" + i);
+        }
+        assertEquals("w1 w22 w49 word50", matcher.apply("word1 word22 word49 word50"));
+    }
+}
@@ -1,3 +1,4 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -6,8 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.openjfx.Config;
 import org.openjfx.Dictionary;
 import org.openjfx.SpellChecker;
+import org.openjfx.SuggestionResult;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -62,6 +67,77 @@ public class SpellCheckerTest {
     }
 
 
+    /**
+     * Misspellings that sound like a word get it suggested even when it is more edits away than other words.
+     */
+    @Test
+    public void testGetSuggestionsSoundAlike() {
+        assertEquals(3, spellChecker.levenshteinEditDistance("fonetik", "phonetic"));
+        assertTrue(Arrays.asList(spellChecker.getSuggestions("fonetik")).contains("phonetic"));
+    }
+
+    /**
+     * Tests a slip onto a neighbouring key ranks above other substitutions when weighting by keyboard
+     */
+    @Test
+    public void testGetSuggestionsKeyboardWeighted() {
+        assertTrue(Arrays.asList(spellChecker.getSuggestions("wprd")).indexOf("word") > 0);
+        spellChecker.keyboardWeighted = true;
+        assertEquals("word", spellChecker.getSuggestions("wprd")[0]);
+    }
+
+    /**
+     * Tests suggestions with a deadline finish when given time, and stop early with what they have when not
+     */
+    @Test
+    public void testGetSuggestionsDeadline() {
+        long later = System.nanoTime() + 60_000_000_000L;
+        SuggestionResult result = spellChecker.getSuggestions("testt", later);
+        assertTrue(result.isComplete());
+        assertArrayEquals(spellChecker.getSuggestions("testt"), result.getSuggestions());
+
+        spellChecker.bitParallel = false;
+        result = spellChecker.getSuggestions("qwzxtrplk", System.nanoTime());
+        assertFalse(result.isComplete());
+        assertEquals(10, result.getSuggestions().length);
+
+        spellChecker.profile = SpellChecker.Profile.EXHAUSTIVE;
+        assertTrue(spellChecker.getSuggestions("qwzxtrplk", System.nanoTime()).isComplete());
+
+        spellChecker.bitParallel = true;
+        spellChecker.profile = SpellChecker.Profile.FAST;
+        result = spellChecker.getSuggestions("testt", later);
+        assertTrue(result.isComplete());
+        assertEquals("test", result.getSuggestions()[0]);
+    }
+
+    /**
+     * Tests words run together get their best split suggested, and that a split leaving a stray letter isn't
+     */
+    @Test
+    public void testGetSuggestionsSplit() {
+        assertTrue(Arrays.asList(spellChecker.getSuggestions("spellchecker")).contains("spell checker"));
+        assertTrue(Arrays.asList(spellChecker.getSuggestions("thisisatest")).contains("this is a test"));
+        for (String word : spellChecker.getSuggestions("testt")) {
+            assertFalse(word.contains(" "), word); // "test t" isn't offered
+        }
+    }
+
+    /**
+     * Tests a batch gets suggestions for each distinct word once, in order, the same as a full scan gives one at a time
+     */
+    @Test
+    public void testGetSuggestionsBatch() {
+        List<String> words = Arrays.asList("wrod", "testt", "helo", "testt", "recieve", "a", "");
+        Map<String, String[]> batch = spellChecker.getSuggestionsBatch(words);
+        assertEquals(Arrays.asList("wrod", "testt", "helo", "recieve", "a", ""), new ArrayList<>(batch.keySet()));
+        SpellChecker fullScan = new SpellChecker(dictionary); // the batch matches a full scan
+        fullScan.prefilter = false;
+        for (String word : batch.keySet()) {
+            assertArrayEquals(fullScan.getSuggestions(word), batch.get(word), word);
+        }
+    }
+
     /**
      * Tests spellchecker's levenshtein edit distance algorithm
      */
@@ -221,5 +297,12 @@ public class SpellCheckerTest {
     @Test
     public void testWordWithHyphen() {
         assertTrue(spellChecker.isValidWord("spell-casting"));
+        assertTrue(spellChecker.isValidWord("well-known")); // "wellknown" isn't a word
+        assertTrue(spellChecker.isValidWord("Well-Known"));
+        assertFalse(spellChecker.isValidWord("spel-ling")); // parts checked, not "spelling"
+        assertFalse(spellChecker.isValidWord("well--known"));
+        assertFalse(spellChecker.isValidWord("-well"));
+        assertFalse(spellChecker.isValidWord("well-"));
+        assertFalse(spellChecker.isValidWord("-"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.Config;
+import org.openjfx.Dictionary;
+import org.openjfx.SpellChecker;
+import org.openjfx.SuggestionScheduler;
+
+class SuggestionSchedulerTest {
+    Config config = new Config();
+    Dictionary dict = new Dictionary(config.STD_DICTIONARY_PATH, config.USER_DICTIONARY_PATH);
+    SpellChecker spellChecker = new SpellChecker(dict);
+
+    @Test
+    void matchesSpellChecker() throws Exception {
+        SuggestionScheduler scheduler = new SuggestionScheduler(spellChecker);
+        assertArrayEquals(spellChecker.getSuggestions("testt"), scheduler.get("testt"));
+        scheduler.shutdown();
+    }
+
+    @Test
+    void prefetchedResultReused() throws Exception {
+        SuggestionScheduler scheduler = new SuggestionScheduler(spellChecker);
+        scheduler.prefetch("helo", 1);
+        String[] first = scheduler.get("helo");
+        assertTrue(scheduler.isReady("helo"));
+        assertSame(first, scheduler.get("helo"));
+        scheduler.shutdown();
+    }
+
+    @Test
+    void cancelKeepsFinishedResult() throws Exception {
+        SuggestionScheduler scheduler = new SuggestionScheduler(spellChecker);
+        String[] first = scheduler.get("wrld");
+        scheduler.cancel("wrld");
+        assertTrue(scheduler.isReady("wrld"));
+        assertSame(first, scheduler.get("wrld"));
+        scheduler.shutdown();
+    }
+
+    @Test
+    void clearForgetsResult() throws Exception {
+        SuggestionScheduler scheduler = new SuggestionScheduler(spellChecker);
+        String[] first = scheduler.get("wrld");
+        scheduler.clear();
+        assertFalse(scheduler.isReady("wrld"));
+        assertNotSame(first, scheduler.get("wrld"));
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+import org.openjfx.TokenLine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenLineTest {
+
+    @Test
+    void splitMatchesRegex() {
+        String[] lines = {"", "Hello", "Hello World", " two  spaces ", "tab\there.", "a b\tc\r\n"};
+        for (String line : lines) {
+            assertArrayEquals(line.split("(?<=\\s)|(?=\\s)"), TokenLine.split(line), line);
+        }
+    }
+
+    @Test
+    void replaceSingleToken() {
+        TokenLine line = new TokenLine("Helo World");
+        assertEquals(1, line.replace(0, 1, "Hello"));
+        assertEquals("Hello World", line.text());
+        assertEquals(3, line.size());
+    }
+
+    @Test
+    void replaceWithSeveralTokens() {
+        TokenLine line = new TokenLine("thisis a test");
+        assertEquals(3, line.replace(0, 1, "this is"));
+        assertEquals("this is a test", line.text());
+        assertEquals("a", line.get(4));
+    }
+
+    @Test
+    void removeTokens() {
+        TokenLine line = new TokenLine("one two three");
+        line.remove(2, 2);
+        assertEquals("one three", line.text());
+        line.remove(1, 2);
+        assertEquals("one", line.text());
+    }
+
+    @Test
+    void editsAcrossLine() {
+        TokenLine line = new TokenLine("a b c d e f g");
+        line.set(12, "G");
+        line.replace(0, 1, "A");
+        line.replace(6, 1, "D D");
+        line.remove(10, 2);
+        assertEquals("A b c D D f G", line.text());
+    }
+
+    @Test
+    void textRebuiltOncePerVersion() {
+        TokenLine line = new TokenLine("Hello World");
+        assertEquals(0, line.version());
+        String before = line.text();
+        assertSame(before, line.text());
+        line.set(0, "Goodbye");
+        assertEquals(1, line.version());
+        String after = line.text();
+        assertEquals("Goodbye World", after);
+        assertSame(after, line.text());
+    }
+
+    @Test
+    void offsetsKeptAcrossEdits() {
+        TokenLine line = new TokenLine("a bb ccc dddd");
+        line.replace(2, 1, "BBB B");
+        line.set(0, "AA");
+        line.remove(7, 2);
+        String text = line.text();
+        assertEquals("AA BBB B ccc", text);
+        assertEquals(text.length(), line.length());
+        int expected = 0;
+        for (int i = 0; i < line.size(); i++) {
+            assertEquals(expected, line.offsetOf(i), "token " + i);
+            expected += line.get(i).length();
+        }
+        assertEquals(text.length(), line.offsetOf(line.size()));
+        assertEquals(text.indexOf("BBB"), line.offsetOf(2)); // gap moved back
+    }
+}
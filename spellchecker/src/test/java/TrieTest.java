@@ -2,7 +2,10 @@ import org.junit.jupiter.api.Test;
 import org.openjfx.Trie;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +30,18 @@ class TrieTest {
         assertFalse(tree.search("xrange")); // wrong first letter
     }
 
+    @Test
+    void searchInsideText() {
+        Trie tree = new Trie();
+        tree.add("well");
+        tree.add("known");
+        assertTrue(tree.search("Well-Known", 0, 4)); // any case
+        assertTrue(tree.search("Well-Known", 5, 10));
+        assertFalse(tree.search("Well-Known", 0, 10));
+        assertFalse(tree.search("Well-Known", 0, 3)); // prefix of a word
+        assertFalse(tree.search("Well-Known", 4, 4));
+    }
+
     @Test
     void addOneLetterWord() {
         Trie tree = new Trie();
@@ -83,4 +98,91 @@ class TrieTest {
             i++;
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void completeRanksByScore() {
+        Trie tree = new Trie();
+        tree.add("car", 5);
+        tree.add("cart", 9);
+        tree.add("care");
+        tree.add("cat", 7);
+        tree.add("dog", 100);
+
+        assertEquals(List.of("cart", "cat", "car", "care"), tree.complete("ca", 10));
+        assertEquals(List.of("cart", "cat"), tree.complete("ca", 2));
+        assertEquals(List.of("cart", "car", "care"), tree.complete("car", 10));
+        assertTrue(tree.complete("x", 5).isEmpty());
+    }
+
+    @Test
+    void completeTiesAlphabetical() {
+        Trie tree = new Trie();
+        tree.add("beta");
+        tree.add("be");
+        tree.add("bet");
+        tree.add("alpha");
+
+        assertEquals(List.of("be", "bet", "beta"), tree.complete("b", 5));
+    }
+
+    @Test
+    void completeAfterScoreLowered() {
+        Trie tree = new Trie();
+        tree.add("tea", 10);
+        tree.add("ten", 5);
+        tree.add("tea", 1);
+
+        assertEquals(List.of("ten", "tea"), tree.complete("te", 2));
+        assertEquals(1, tree.scoreOf("tea"));
+    }
+
+    @Test
+    void forEachWordFiltersAndStops() {
+        Trie tree = new Trie();
+        for (String w : new String[] { "car", "cart", "carton", "cat", "dog", "ca" }) {
+            tree.add(w);
+        }
+
+        List<String> seen = new ArrayList<>();
+        tree.forEachWord("car", 0, Integer.MAX_VALUE, (word, length) -> seen.add(new String(word, 0, length)));
+        assertEquals(List.of("car", "cart", "carton"), seen);
+
+        seen.clear();
+        tree.forEachWord("", 3, 4, (word, length) -> seen.add(new String(word, 0, length)));
+        assertEquals(List.of("car", "cart", "cat", "dog"), seen);
+
+        seen.clear();
+        tree.forEachWord("", 0, Integer.MAX_VALUE, (word, length) -> {
+            seen.add(new String(word, 0, length));
+            return seen.size() < 2;
+        });
+        assertEquals(List.of("ca", "car"), seen);
+
+        seen.clear();
+        tree.forEachWord("x", 0, Integer.MAX_VALUE, (word, length) -> seen.add(new String(word, 0, length)));
+        assertTrue(seen.isEmpty());
+    }
+
+    @Test
+    void forEachEditFindsWordsByDistance() {
+        Random random = new Random(9);
+        Trie tree = new Trie();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            words.add(RandomWords.word(random, 1, 6, "abcd"));
+            tree.add(words.get(i));
+        }
+
+        for (String query : new String[] { "abcd", "badc", "a", "ddddd", "caXb", "" }) {
+            HashMap<String, Integer> reached = new HashMap<>();
+            tree.forEachEdit(query, 2, (word, length, edits) -> {
+                reached.merge(new String(word, 0, length), edits, Math::min);
+                return true;
+            });
+            for (String word : words) {
+                int distance = RandomWords.distance(query, word);
+                assertEquals(distance <= 2 ? distance : null, reached.get(word), query + " " + word);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.TrigramIndex;
+import org.openjfx.Trie;
+import org.openjfx.WordStore;
+
+class TrigramIndexTest {
+
+    private static String[] words(WordStore store, int[] ids) {
+        String[] out = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            out[i] = store.word(ids[i]);
+        }
+        return out;
+    }
+
+    @Test
+    void candidatesGrowWithDistance() {
+        Trie trie = new Trie();
+        for (String word : new String[] { "spelling", "spilling", "smelling", "spell", "telling", "zebra" }) {
+            trie.add(word);
+        }
+        WordStore store = new WordStore(trie);
+        TrigramIndex.Query query = new TrigramIndex(store).query("speling");
+
+        assertArrayEquals(new String[] { "spelling" }, words(store, query.candidates(1)));
+        assertArrayEquals(new String[] { "smelling", "spell", "spilling", "telling" }, words(store, query.candidates(2)));
+        assertNull(query.candidates(3)); // 9 trigrams, 3 edits could leave none shared
+        assertEquals(5, query.handedOut());
+    }
+
+    @Test
+    void parallelBuildMatchesAdds() {
+        // enough words to span several build chunks
+        Trie trie = new Trie();
+        WordStore added = new WordStore();
+        String[] all = new String[30000];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = Integer.toString(i + 100000, 26).replaceAll("[0-9]", "z");
+            trie.add(all[i]);
+        }
+        WordStore built = new WordStore(trie);
+        TrigramIndex index = new TrigramIndex(new WordStore());
+        for (int id = 0; id < built.size(); id++) {
+            index.add(added.add(built.word(id)), built.word(id));
+        }
+        TrigramIndex parallel = new TrigramIndex(built);
+
+        for (String word : new String[] { all[5], all[12345], all[29999], "fgzzz" }) {
+            for (int k = 1; k <= 2; k++) {
+                int[] expected = index.query(word).candidates(k);
+                int[] actual = parallel.query(word).candidates(k);
+                assertTrue(Arrays.equals(expected, actual), word + " at " + k);
+            }
+        }
+        assertTrue(Arrays.stream(parallel.query(all[12345]).candidates(1))
+                .mapToObj(built::word).anyMatch(all[12345]::equals));
+    }
+}
@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjfx.Dictionary;
+import org.openjfx.SpellChecker;
+import org.openjfx.Trie;
+import org.openjfx.UnigramModel;
+import org.openjfx.WordStore;
+
+class UnigramModelTest {
+    static final List<String> WORDS = List.of("cat", "cot", "cut", "dog");
+
+    @TempDir
+    Path dir;
+
+    private WordStore stockStore() {
+        Trie trie = new Trie();
+        WORDS.forEach(trie::add);
+        return new WordStore(trie);
+    }
+
+    @Test
+    void commonWordsRankFirstAtSameDistance() throws Exception {
+        Path stock = Files.write(dir.resolve("stock.txt"), WORDS);
+        Path user = Files.createFile(dir.resolve("user.txt"));
+        Path corpus = Files.writeString(dir.resolve("corpus.txt"), "The cut. A cut, the cot! cut cot");
+
+        WordStore store = stockStore();
+        String table = dir.resolve("unigrams.bin").toString();
+        UnigramModel.build(store, corpus.toFile()).save(table, store);
+
+        Dictionary dict = new Dictionary(stock.toString(), user.toString(), table);
+        String[] suggestions = new SpellChecker(dict).getSuggestions("cxt");
+        assertEquals("cut", suggestions[0]);
+        assertEquals("cot", suggestions[1]);
+        assertEquals("cat", suggestions[2]);
+        assertEquals("dog", suggestions[3]);
+        dict.handleBwClose();
+    }
+
+    @Test
+    void commonWordsCompleteFirst() throws Exception {
+        Path stock = Files.write(dir.resolve("stock.txt"), WORDS);
+        Path user = Files.createFile(dir.resolve("user.txt"));
+        Path corpus = Files.writeString(dir.resolve("corpus.txt"), "cut cut cut cot cat");
+
+        WordStore store = stockStore();
+        String table = dir.resolve("unigrams.bin").toString();
+        UnigramModel.build(store, corpus.toFile()).save(table, store);
+
+        Dictionary dict = new Dictionary(stock.toString(), user.toString(), table);
+        assertEquals(List.of("cut", "cat", "cot"), dict.complete("c", 3)); // "cut" before rarer "cat"
+        dict.handleBwClose();
+    }
+
+    @Test
+    void quantizedFromCounts() throws Exception {
+        File corpus = Files.writeString(dir.resolve("corpus.txt"), "dog dog dog dog cat zebra").toFile();
+        UnigramModel model = UnigramModel.build(stockStore(), corpus);
+        assertEquals(255, model.quantized(3)); // dog, most common
+        assertTrue(model.quantized(0) > 0 && model.quantized(0) < 255); // cat
+        assertEquals(0, model.quantized(1)); // cot, unseen
+        assertEquals(0, model.quantized(99)); // past table
+    }
+
+    @Test
+    void tableForOtherDictionaryIgnored() throws Exception {
+        WordStore store = stockStore();
+        String table = dir.resolve("unigrams.bin").toString();
+        UnigramModel.build(store, Files.writeString(dir.resolve("corpus.txt"), "cat").toFile()).save(table, store);
+
+        Trie other = new Trie();
+        other.add("cat");
+        other.add("cow");
+        assertSame(UnigramModel.EMPTY, UnigramModel.load(table, new WordStore(other)));
+        assertEquals(4, UnigramModel.load(table, store).size());
+    }
+}
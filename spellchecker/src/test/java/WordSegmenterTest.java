@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.Trie;
+import org.openjfx.WordSegmenter;
+
+class WordSegmenterTest {
+
+    private static Trie trie(String... words) {
+        Trie trie = new Trie();
+        for (String word : words) {
+            trie.add(word);
+        }
+        return trie;
+    }
+
+    @Test
+    void splitsIntoFewestLongestWords() {
+        Trie trie = trie("a", "i", "t", "s", "th", "thi", "this", "is", "isis", "sis", "test", "tests", "at");
+        assertArrayEquals(new String[] { "this", "is", "a", "test" }, WordSegmenter.segment(trie, "thisisatest"));
+        assertArrayEquals(new String[] { "this", "tests" }, WordSegmenter.segment(trie, "thistests"));
+        assertNull(WordSegmenter.segment(trie, "tests")); // a word on its own
+        assertNull(WordSegmenter.segment(trie, "testt")); // only "t" left over, which isn't split off
+        assertNull(WordSegmenter.segment(trie, "thisxis"));
+        assertNull(WordSegmenter.segment(trie, ""));
+    }
+
+    @Test
+    void findsEveryWordStartingAtPosition() {
+        Trie trie = trie("a", "at", "ate", "tea", "eat");
+        int[] ends = new int[8];
+        assertEquals(3, trie.wordEnds("xateam", 1, ends));
+        assertArrayEquals(new int[] { 2, 3, 4 }, java.util.Arrays.copyOf(ends, 3));
+        assertEquals(1, trie.wordEnds("xateam", 2, ends));
+        assertEquals(5, ends[0]);
+        assertEquals(0, trie.wordEnds("xateam", 0, ends));
+        assertEquals(0, trie.wordEnds("aTe", 1, ends));
+    }
+}
@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openjfx.Trie;
+import org.openjfx.WordStore;
+
+class WordStoreTest {
+
+    private static List<String> words(WordStore store, int minLength, int maxLength) {
+        List<String> out = new ArrayList<>();
+        store.forEach(minLength, maxLength, (word, length) -> out.add(new String(word, 0, length)));
+        return out;
+    }
+
+    @Test
+    void addedWordsMergedInOrder() {
+        Trie trie = new Trie();
+        trie.add("cat");
+        trie.add("dog");
+        trie.add("zebra");
+        WordStore store = new WordStore(trie);
+
+        int id = store.add("apple");
+        store.add("eel");
+        store.add("dogs");
+        assertEquals(List.of("apple", "cat", "dog", "dogs", "eel", "zebra"), words(store, 0, Integer.MAX_VALUE));
+        assertEquals(List.of("cat", "dog", "eel"), words(store, 3, 3));
+        assertEquals("apple", store.word(id));
+        assertEquals(3, store.deltaSize());
+    }
+
+    @Test
+    void compactKeepsIdsAndOrder() {
+        WordStore store = new WordStore();
+        List<String> expected = new ArrayList<>();
+        int[] ids = new int[1000];
+        for (int i = 0; i < ids.length; i++) {
+            // spread words so inserts land all over the delta
+            String word = Integer.toString(i * 7919 % 1000, 26).replace('0', 'q');
+            ids[i] = store.add(word);
+            expected.add(word);
+        }
+        store.compact();
+        assertEquals(0, store.deltaSize());
+        assertEquals(1000, store.size());
+
+        expected.sort(null);
+        assertEquals(expected, words(store, 0, Integer.MAX_VALUE));
+        assertEquals(ids.length - 1, ids[ids.length - 1]);
+        assertEquals(Integer.toString(999 * 7919 % 1000, 26).replace('0', 'q'), store.word(ids[999]));
+    }
+}